@@ -79,7 +79,7 @@ export class AccountsComponent {
               successMessage = `Success: Account ${result.name} created.`;
               break;
             case 'edit':
-              actionObservable = this.accountService.editAccount(result.name, result);
+              actionObservable = this.accountService.editAccount(result.name, { ...result, version: account?.version });
               successMessage = `Success: Account updated.`;
               break;
           }
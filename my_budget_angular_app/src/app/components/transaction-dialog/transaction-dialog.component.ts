@@ -56,7 +56,7 @@ export class TransactionDialogComponent {
       description: [this.data?.transaction?.description || '', Validators.required],
       amount: [this.data?.transaction?.amount || null, [Validators.required, Validators.min(0.01)]],
       type: [this.data?.transaction?.type || '', Validators.required],
-      account: [this.data?.transaction?.account || '', Validators.required],
+      account: [this.data?.transaction?.accountName ? { name: this.data.transaction.accountName } : '', Validators.required],
       currency: [this.data?.transaction?.currency || '', Validators.required]
     });
   }
@@ -77,6 +77,11 @@ export class TransactionDialogComponent {
   }
 
 
+  compareAccounts(first: Account, second: Account): boolean {
+    return !!first && !!second && first.name === second.name;
+  }
+
+
   private filterCurrencies(value: string): string[] {
     return this.currencies.filter(currency => currency.includes(value));
   }
@@ -66,7 +66,7 @@ export class TransactionsComponent {
     });
 
     this.transactions.filterPredicate = (transaction: Transaction, filter: string) => {
-      return transaction.account.name.trim().toLowerCase() === filter.trim().toLowerCase() || filter === '';
+      return transaction.accountName!.trim().toLowerCase() === filter.trim().toLowerCase() || filter === '';
     };
   }
 
@@ -0,0 +1,8 @@
+export interface AccountSummary {
+
+  currency: string;
+  total: number;
+  accounts: number;
+  ratesDate: string;
+
+}
@@ -4,5 +4,6 @@ export interface Account {
   balance: number;
   currency: string;
   balanceInDefaultCurrency: number;
+  version?: number;
 
 }
@@ -0,0 +1,22 @@
+import { Account } from "./account";
+import { Transaction } from "./transaction";
+
+export enum ChangeType {
+  TRANSACTION_CREATED = 'TRANSACTION_CREATED',
+  TRANSACTION_UPDATED = 'TRANSACTION_UPDATED',
+  TRANSACTION_DELETED = 'TRANSACTION_DELETED',
+  TRANSACTIONS_CHANGED = 'TRANSACTIONS_CHANGED',
+  ACCOUNTS_CHANGED = 'ACCOUNTS_CHANGED',
+  RESET = 'RESET'
+}
+
+export interface ChangeEvent {
+
+  seq: number;
+  type: ChangeType;
+  transaction?: Transaction;
+  accounts?: Account[];
+  deletedAccounts?: string[];
+  allAccounts?: boolean;
+
+}
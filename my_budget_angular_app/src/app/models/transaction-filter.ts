@@ -0,0 +1,12 @@
+import { TransactionType } from "./transaction-type.enum";
+
+export interface TransactionFilter {
+
+  account?: string;
+  type?: TransactionType;
+  from?: string;
+  to?: string;
+  minAmount?: number;
+  maxAmount?: number;
+
+}
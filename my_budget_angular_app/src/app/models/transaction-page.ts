@@ -0,0 +1,8 @@
+import { Transaction } from "./transaction";
+
+export interface TransactionPage {
+
+  items: Transaction[];
+  nextCursor?: string;
+
+}
@@ -5,10 +5,12 @@ export interface Transaction {
 
   id: number;
   description: string;
-  account: Account;
+  account?: Account;
+  accountName?: string;
   amount: number;
   currency: string;
   type: TransactionType;
   amountInDefaultCurrency: number;
+  bookedAt?: string;
 
 }
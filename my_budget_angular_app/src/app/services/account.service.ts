@@ -1,9 +1,12 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Account } from '../models/account';
+import { AccountSummary } from '../models/account-summary';
 import { Observable } from 'rxjs/internal/Observable';
-import { BehaviorSubject, tap, switchMap, map } from 'rxjs';
+import { BehaviorSubject } from 'rxjs';
 import { CurrencyService } from './currency.service';
+import { ChangeFeedService } from './change-feed.service';
+import { ChangeEvent, ChangeType } from '../models/change-event';
 
 
 @Injectable({
@@ -21,34 +24,19 @@ export class AccountService {
   totalAmount$ = this.totalAmountSubject.asObservable();
 
 
-  constructor(private httpClient: HttpClient, private currencyService: CurrencyService) {
-    this.loadAccounts(); 
+  constructor(private httpClient: HttpClient, private currencyService: CurrencyService, private changeFeedService: ChangeFeedService) {
+    this.changeFeedService.events$.subscribe(event => this.applyChange(event));
   }
 
 
   loadAccounts(): void {
-    this.currencyService.currencyRatesForDefaultCurrency$.pipe(
-      switchMap(currencyRates => {
-
-        return this.httpClient.get<Account[]>(this.baseAccountsUrl).pipe(
-
-          map((accounts: Account[]) => {
-            return accounts.map(account => {
-              const rate = currencyRates[account.currency.toLocaleLowerCase()];
-              account.balanceInDefaultCurrency = !isNaN(rate) ? account.balance / rate : account.balance;
-              return account;
-            });
-          }),
-
-          tap(accounts => {
-            this.accountsSubject.next(accounts);
-            const totalAmount = accounts.reduce((sum, account) => sum + account.balanceInDefaultCurrency, 0);
-            this.totalAmountSubject.next(totalAmount);
-          })
-
-        );
-      })
-    ).subscribe();
+    const params = { currency: this.currencyService.getDefaultCurrency() };
+
+    this.httpClient.get<Account[]>(this.baseAccountsUrl, { params })
+      .subscribe(accounts => this.accountsSubject.next(accounts));
+
+    this.httpClient.get<AccountSummary>(`${this.baseAccountsUrl}/summary`, { params })
+      .subscribe(summary => this.totalAmountSubject.next(summary.total));
   }
 
 
@@ -57,32 +45,36 @@ export class AccountService {
   }
 
   createAccount(account: Account): Observable<Account> {
-    return this.httpClient.post<Account>(this.baseAccountsUrl, account)
-      .pipe(
-        tap(() => this.loadAccounts()) 
-      );
+    return this.httpClient.post<Account>(this.baseAccountsUrl, account);
   }
 
   editAccount(name: string, account: Account): Observable<Account> {
-    return this.httpClient.put<Account>(`${this.singleAccountUrl}/${name}`, account)
-      .pipe(
-        tap(() => this.loadAccounts()) 
-      );
+    return this.httpClient.put<Account>(`${this.singleAccountUrl}/${name}`, account);
   }
 
   deleteAccount(name: string): Observable<void> {
-    return this.httpClient.delete<void>(`${this.singleAccountUrl}/${name}`)
-      .pipe(
-        tap(() => this.loadAccounts()) 
-      );
+    return this.httpClient.delete<void>(`${this.singleAccountUrl}/${name}`);
   }
 
   deleteAllAccounts(): Observable<void> {
-    return this.httpClient.delete<void>(this.baseAccountsUrl)
-      .pipe(
-        tap(() => this.loadAccounts())
-      );
+    return this.httpClient.delete<void>(this.baseAccountsUrl);
   }
 
+  // Events carry the committed balances, so the list and total are patched without a reload.
+  private applyChange(event: ChangeEvent): void {
+    if (event.type === ChangeType.RESET || !event.accounts) {
+      this.loadAccounts();
+      return;
+    }
+
+    const changed = new Set([...event.accounts.map(a => a.name), ...(event.deletedAccounts ?? [])]);
+    const accounts = event.allAccounts
+      ? event.accounts
+      : [...this.accountsSubject.getValue().filter(a => !changed.has(a.name)), ...event.accounts]
+          .sort((a, b) => a.name.localeCompare(b.name));
+
+    this.accountsSubject.next(accounts);
+    this.totalAmountSubject.next(accounts.reduce((total, a) => total + (a.balanceInDefaultCurrency ?? 0), 0));
+  }
 
 }
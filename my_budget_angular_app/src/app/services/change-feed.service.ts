@@ -0,0 +1,42 @@
+import { Inject, Injectable, PLATFORM_ID } from '@angular/core';
+import { isPlatformBrowser } from '@angular/common';
+import { Observable, Subject, map } from 'rxjs';
+import { ChangeEvent, ChangeType } from '../models/change-event';
+import { CurrencyService } from './currency.service';
+
+@Injectable({
+  providedIn: 'root'
+})
+export class ChangeFeedService {
+
+  private eventsUrl = 'http://localhost:8080/events';
+  private eventNames = ['reset', 'transaction-created', 'transaction-updated', 'transaction-deleted', 'transactions-changed', 'accounts-changed'];
+
+  private eventsSubject = new Subject<ChangeEvent>();
+  events$: Observable<ChangeEvent>;
+
+  private eventSource?: EventSource;
+
+
+  constructor(private currencyService: CurrencyService, @Inject(PLATFORM_ID) private platformId: Object) {
+
+    if (isPlatformBrowser(this.platformId)) {
+      this.events$ = this.eventsSubject.asObservable();
+      this.currencyService.defaultCurrency$.subscribe(currency => this.connect(currency));
+    } else {
+      // No feed while rendering on the server: every currency change just asks for a full load.
+      this.events$ = this.currencyService.defaultCurrency$.pipe(map(() => ({ seq: 0, type: ChangeType.RESET })));
+    }
+  }
+
+  // Amounts in the feed are converted to the default currency, so a currency change reconnects.
+  // The server opens every new connection with a reset; EventSource itself resumes dropped ones.
+  private connect(currency: string): void {
+
+    this.eventSource?.close();
+    this.eventSource = new EventSource(`${this.eventsUrl}?currency=${encodeURIComponent(currency)}`);
+
+    for (const name of this.eventNames)
+      this.eventSource.addEventListener(name, event => this.eventsSubject.next(JSON.parse((event as MessageEvent).data)));
+  }
+}
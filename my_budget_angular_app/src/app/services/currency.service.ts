@@ -62,6 +62,11 @@ export class CurrencyService {
   }
 
 
+  getDefaultCurrency(): string {
+    return this.defaultCurrencySubject.getValue();
+  }
+
+
   setDefaultCurrency(currency: string): void {
 
     if (isPlatformBrowser(this.platformId)) {
@@ -1,10 +1,13 @@
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpErrorResponse, HttpHeaders } from '@angular/common/http';
 import { Injectable } from '@angular/core';
 import { Observable } from 'rxjs/internal/Observable';
 import { Transaction } from '../models/transaction';
-import { BehaviorSubject, tap, switchMap, map } from 'rxjs';
+import { TransactionPage } from '../models/transaction-page';
+import { TransactionFilter } from '../models/transaction-filter';
+import { BehaviorSubject, retry, throwError, timer } from 'rxjs';
 import { CurrencyService } from './currency.service';
-import { AccountService } from './account.service';
+import { ChangeFeedService } from './change-feed.service';
+import { ChangeEvent, ChangeType } from '../models/change-event';
 
 @Injectable({
   providedIn: 'root'
@@ -18,68 +21,99 @@ export class TransactionService {
   transactions$ = this.transactionsSubject.asObservable();
 
 
-  constructor(private httpClient: HttpClient, private currencyService: CurrencyService, private accountService: AccountService) {
-    this.loadTransactions(); 
+  constructor(private httpClient: HttpClient, private currencyService: CurrencyService, private changeFeedService: ChangeFeedService) {
+    this.changeFeedService.events$.subscribe(event => this.applyChange(event));
   }
 
  
   loadTransactions(): void{
-    this.currencyService.currencyRatesForDefaultCurrency$.pipe(
-      switchMap(currencyRates => {
-
-        return this.httpClient.get<Transaction[]>(this.baseTransactionsUrl).pipe(
-          map((transactions: Transaction[]) => {
-
-            return transactions.map(transaction => {
-
-              const rate = currencyRates[transaction.currency.toLowerCase()];
-              transaction.amountInDefaultCurrency = !isNaN(rate) ? transaction.amount / rate : transaction.amount;
-              return transaction;
-            });
-          }),
-          tap(transactions => this.transactionsSubject.next(transactions))
-        );
-      })
-    ).subscribe();
+    const params = { currency: this.currencyService.getDefaultCurrency() };
+
+    this.httpClient.get<Transaction[]>(this.baseTransactionsUrl, { params })
+      .subscribe(transactions => this.transactionsSubject.next(transactions));
   }
 
   getTransactionsForAccount(name: string): Observable<Transaction[]> {
     return this.httpClient.get<Transaction[]>(`${this.baseTransactionsUrl}/${name}`);
   }
 
+  getTransactionPage(size: number, cursor?: string, accountName?: string): Observable<TransactionPage> {
+    const url = accountName ? `${this.baseTransactionsUrl}/${accountName}` : this.baseTransactionsUrl;
+    const params: Record<string, string | number> = { size, currency: this.currencyService.getDefaultCurrency() };
+    if (cursor)
+      params['cursor'] = cursor;
+
+    return this.httpClient.get<TransactionPage>(url, { params });
+  }
+
+  searchTransactions(filter: TransactionFilter, size: number, cursor?: string): Observable<TransactionPage> {
+    const params: Record<string, string | number> = { size, currency: this.currencyService.getDefaultCurrency() };
+    for (const [key, value] of Object.entries(filter))
+      if (value !== undefined && value !== null && value !== '')
+        params[key] = value;
+    if (cursor)
+      params['cursor'] = cursor;
+
+    return this.httpClient.get<TransactionPage>(`${this.baseTransactionsUrl}/search`, { params });
+  }
+
   getTransaction(id: number): Observable<Transaction> {
     return this.httpClient.get<Transaction>(`${this.singleTransactionUrl}/${id}`);
   }
 
   createTransaction(transaction: Transaction): Observable<Transaction> {
-    return this.httpClient.post<Transaction>(this.baseTransactionsUrl, transaction)
+    return this.httpClient.post<Transaction>(this.baseTransactionsUrl, transaction, { headers: this.idempotencyHeaders() })
       .pipe(
-        tap(() => this.loadTransactions()),
-        tap(() => this.accountService.loadAccounts())
+        retry({ count: 2, delay: error => this.retryDelay(error) })
       );
   }
 
   editTransaction(id: number, transaction: Transaction): Observable<Transaction> {
-    return this.httpClient.put<Transaction>(`${this.singleTransactionUrl}/${id}`, transaction)
+    return this.httpClient.put<Transaction>(`${this.singleTransactionUrl}/${id}`, transaction, { headers: this.idempotencyHeaders() })
       .pipe(
-        tap(() => this.loadTransactions()),
-        tap(() => this.accountService.loadAccounts())
+        retry({ count: 2, delay: error => this.retryDelay(error) })
       );
   }
 
   deleteTransaction(id: number): Observable<void> {
-    return this.httpClient.delete<void>(`${this.singleTransactionUrl}/${id}`)
-      .pipe(
-        tap(() => this.loadTransactions()),
-        tap(() => this.accountService.loadAccounts()) 
-      );
+    return this.httpClient.delete<void>(`${this.singleTransactionUrl}/${id}`);
   }
 
   deleteAllTransactions(): Observable<void> {
-    return this.httpClient.delete<void>(this.baseTransactionsUrl)
-      .pipe(
-        tap(() => this.loadTransactions()),
-        tap(() => this.accountService.loadAccounts())
-      );
+    return this.httpClient.delete<void>(this.baseTransactionsUrl);
+  }
+
+  // Single changes are applied in place; anything broader reloads the list.
+  private applyChange(event: ChangeEvent): void {
+    const transaction = event.transaction;
+    const transactions = this.transactionsSubject.getValue();
+
+    switch (event.type) {
+      case ChangeType.TRANSACTION_CREATED:
+      case ChangeType.TRANSACTION_UPDATED:
+        if (transaction) {
+          const others = transactions.filter(t => t.id !== transaction.id);
+          this.transactionsSubject.next([...others, transaction].sort((a, b) => a.id - b.id));
+        }
+        break;
+      case ChangeType.TRANSACTION_DELETED:
+        if (transaction)
+          this.transactionsSubject.next(transactions.filter(t => t.id !== transaction.id));
+        break;
+      case ChangeType.TRANSACTIONS_CHANGED:
+      case ChangeType.RESET:
+        this.loadTransactions();
+        break;
+    }
+  }
+
+  // One key per logical write: retries reuse it, so the server applies the write at most once.
+  private idempotencyHeaders(): HttpHeaders {
+    return new HttpHeaders({ 'Idempotency-Key': crypto.randomUUID() });
+  }
+
+  // Only network failures are retried; the request may or may not have reached the server.
+  private retryDelay(error: HttpErrorResponse) {
+    return error.status === 0 ? timer(500) : throwError(() => error);
   }
 }
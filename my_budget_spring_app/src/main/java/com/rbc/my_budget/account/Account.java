@@ -11,10 +11,12 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 
 @Entity
+@Table(indexes = @Index(name = "idx_account_change_seq", columnList = "change_seq, name"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -42,6 +44,15 @@ public class Account {
     @Transient
     private List<Transaction> transactions;
 
+    @Version
+    @Column (nullable = false)
+    private Long version;
+
+    // Stamped by ChangeTracker; Hibernate never writes it.
+    @JsonIgnore
+    @Column (name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
 
     public Account(String name, BigDecimal balance, String currency){
         this.name= name;
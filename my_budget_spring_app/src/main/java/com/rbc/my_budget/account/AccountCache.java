@@ -0,0 +1,95 @@
+package com.rbc.my_budget.account;
+
+import com.rbc.my_budget.transaction.TransactionsChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU read-through cache of account views by name. Entries are dropped once an account
+ * write, or a transaction write that moved the account's balance, commits.
+ * <p>
+ * A view loaded while such a write commits may be the old one, so it is only stored if no
+ * invalidation happened since the load started. Missing accounts are not cached.
+ */
+@Component
+public class AccountCache {
+
+    private final AccountRepository accountRepository;
+    private final Map<String, AccountView> entries;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public AccountCache(AccountRepository accountRepository, @Value("${account.cache.max-entries:1000}") int maxEntries) {
+        this.accountRepository = accountRepository;
+        int capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AccountView> eldest) {
+                if (size() <= capacity)
+                    return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public Optional<AccountView> get(String name) {
+
+        long startedAt;
+        synchronized (this) {
+            AccountView cached = entries.get(name);
+            if (cached != null) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+            startedAt = generation;
+        }
+
+        misses.increment();
+        Optional<AccountView> account = accountRepository.findViewByName(name);
+
+        synchronized (this) {
+            if (account.isPresent() && generation == startedAt)
+                entries.put(name, account.get());
+        }
+        return account;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        invalidate(event.accountNames());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        invalidate(event.accountName() == null ? null : List.of(event.accountName()));
+    }
+
+    public synchronized AccountCacheStats getStats() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        return new AccountCacheStats(hitCount, misses.sum(), evictions.sum(), invalidations.sum(), entries.size(),
+                requests == 0 ? 0.0 : (double) hitCount / requests);
+    }
+
+    private synchronized void invalidate(Collection<String> names) {
+        generation++;
+        invalidations.increment();
+        if (names == null)
+            entries.clear();
+        else
+            entries.keySet().removeIf(key -> AccountNames.contains(names, key));
+    }
+}
@@ -0,0 +1,9 @@
+package com.rbc.my_budget.account;
+
+public record AccountCacheStats(long hits,
+                                long misses,
+                                long evictions,
+                                long invalidations,
+                                int size,
+                                double hitRatio) {
+}
@@ -0,0 +1,13 @@
+package com.rbc.my_budget.account;
+
+import java.math.BigDecimal;
+
+/**
+ * An account as of the change sequence it was last stamped with.
+ */
+public record AccountChange(long changeSeq, AccountView account) {
+
+    public AccountChange(Long changeSeq, String name, BigDecimal balance, String currency, Long version) {
+        this(changeSeq, new AccountView(name, balance, currency, version));
+    }
+}
@@ -1,7 +1,10 @@
 package com.rbc.my_budget.account;
 
+import com.rbc.my_budget.etag.ETags;
+import com.rbc.my_budget.etag.ResourceVersions;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,28 +17,42 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
-    public ResponseEntity<List<Account>> getAllAccounts(){
-        return ResponseEntity.ok(accountService.getAllAccounts());
+    public ResponseEntity<List<AccountView>> getAllAccounts(@RequestParam(name = "currency", required = false) String currency,
+                                                            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        return ETags.respond(ifNoneMatch, resourceVersions.accountsTag(currency), () -> accountService.getAllAccounts(currency));
+    }
+
+    @GetMapping(path = "/summary")
+    public ResponseEntity<AccountSummary> getAccountSummary(@RequestParam(name = "currency", defaultValue = "EUR") String currency,
+                                                            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        return ETags.respond(ifNoneMatch, resourceVersions.accountsTag(currency), () -> accountService.getAccountSummary(currency));
     }
 
 
     @GetMapping(path = "/account/{name}")
-    public ResponseEntity<Account> getAccount(@PathVariable("name") String name){
-        return ResponseEntity.ok(accountService.getAccount(name));
+    public ResponseEntity<AccountView> getAccount(@PathVariable("name") String name,
+                                                  @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        return ETags.respond(ifNoneMatch, resourceVersions.accountsTag(null), () -> accountService.getAccount(name));
+    }
+
+    @GetMapping(path = "/cache/stats")
+    public ResponseEntity<AccountCacheStats> getAccountCacheStats(){
+        return ResponseEntity.ok(accountService.getAccountCacheStats());
     }
 
     @PostMapping
-    public ResponseEntity<Account> createAccount(@Valid @RequestBody Account newAccount) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(accountService.createAccount(newAccount));
+    public ResponseEntity<AccountView> createAccount(@Valid @RequestBody Account newAccount) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(AccountView.of(accountService.createAccount(newAccount)));
     }
 
 
     @PutMapping(path = "/account/{name}")
-    public ResponseEntity<Account> updateAccount(@PathVariable("name") String name,
-                                           @Valid @RequestBody Account updatedAccount) {
-        return ResponseEntity.ok(accountService.editAccount(name, updatedAccount));
+    public ResponseEntity<AccountView> updateAccount(@PathVariable("name") String name,
+                                               @Valid @RequestBody Account updatedAccount) {
+        return ResponseEntity.ok(AccountView.of(accountService.editAccount(name, updatedAccount)));
     }
 
 
@@ -0,0 +1,12 @@
+package com.rbc.my_budget.account;
+
+import java.math.BigDecimal;
+
+public interface AccountCurrencyTotal {
+
+    String getCurrency();
+
+    BigDecimal getTotal();
+
+    long getAccounts();
+}
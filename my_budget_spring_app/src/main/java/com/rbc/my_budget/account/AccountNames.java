@@ -0,0 +1,17 @@
+package com.rbc.my_budget.account;
+
+import java.util.Collection;
+
+/**
+ * How cached entries are matched against the account names a write reports. Names arrive as the
+ * writer spelled them, and MySQL compares them case-insensitively, so the caches do too.
+ */
+public final class AccountNames {
+
+    private AccountNames() {
+    }
+
+    public static boolean contains(Collection<String> names, String name) {
+        return names.stream().anyMatch(name::equalsIgnoreCase);
+    }
+}
@@ -1,8 +1,62 @@
 package com.rbc.my_budget.account;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, String> {
+
+    @Query("select new com.rbc.my_budget.account.AccountView(a.name, a.balance, a.currency, a.version) from Account a order by a.name")
+    List<AccountView> findAllViews();
+
+    @Query("select new com.rbc.my_budget.account.AccountView(a.name, a.balance, a.currency, a.version) from Account a where a.name = :name")
+    Optional<AccountView> findViewByName(@Param("name") String name);
+
+    @Query("select new com.rbc.my_budget.account.AccountView(a.name, a.balance, a.currency, a.version) from Account a where a.name in :names order by a.name")
+    List<AccountView> findViewsByNameIn(@Param("names") Collection<String> names);
+
+    @Query("select a.currency as currency, sum(a.balance) as total, count(a) as accounts from Account a group by a.currency")
+    List<AccountCurrencyTotal> sumBalancesByCurrency();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.name = :name")
+    Optional<Account> lockByName(@Param("name") String name);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a order by a.name")
+    List<Account> lockAll();
+
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + cast(:delta as BigDecimal(38, 2)), a.version = a.version + 1 where a.name = :name")
+    int addToBalance(@Param("name") String name, @Param("delta") BigDecimal delta);
+
+    @Query("select new com.rbc.my_budget.account.AccountChange(a.changeSeq, a.name, a.balance, a.currency, a.version) from Account a " +
+            "where a.changeSeq <= :upTo and (a.changeSeq > :seq or (a.changeSeq = :seq and a.name > :afterName)) order by a.changeSeq, a.name")
+    List<AccountChange> findChangesAfter(@Param("seq") long seq, @Param("afterName") String afterName, @Param("upTo") long upTo, Limit limit);
+
+    @Query("select max(a.changeSeq) from Account a")
+    Long findMaxChangeSeq();
+
+    @Modifying
+    @Query("update Account a set a.changeSeq = :seq where a.name in :names")
+    int stampChangeSeq(@Param("names") Collection<String> names, @Param("seq") long seq);
+
+    @Modifying
+    @Query("update Account a set a.changeSeq = :seq")
+    int stampAllChangeSeq(@Param("seq") long seq);
+
+    @Modifying
+    @Query("update Account a set a.changeSeq = :seq where a.changeSeq is null")
+    int stampUntracked(@Param("seq") long seq);
 }
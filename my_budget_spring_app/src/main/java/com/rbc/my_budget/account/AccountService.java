@@ -1,66 +1,161 @@
 package com.rbc.my_budget.account;
 
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.currency.RateMatrix;
 import com.rbc.my_budget.exception.AccountAlreadyExistsException;
 import com.rbc.my_budget.exception.AccountCannotBeDeletedException;
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
 import com.rbc.my_budget.exception.NotFoundException;
-import jakarta.transaction.Transactional;
+import com.rbc.my_budget.ledger.LedgerEventType;
+import com.rbc.my_budget.ledger.LedgerService;
+import com.rbc.my_budget.sync.ChangeTracker;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
 
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final CurrencyService currencyService;
+    private final LedgerService ledgerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeTracker changeTracker;
+
+    @Transactional(readOnly = true)
+    public List<AccountView> getAllAccounts(){
+        return accountRepository.findAllViews();
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountView> getAllAccounts(String currency){
+
+        List<AccountView> accounts = getAllAccounts();
+        if (currency == null)
+            return accounts;
+
+        RateMatrix rates = currencyService.getLatestRateMatrix(currency);
+        return accounts.stream()
+                .map(account -> account.withBalanceInDefaultCurrency(round(rates.convert(account.balance(), account.currency(), currency))))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountView> getAccounts(Collection<String> names){
+        return accountRepository.findViewsByNameIn(names);
+    }
+
+    @Transactional(readOnly = true)
+    public AccountSummary getAccountSummary(String currency){
+
+        RateMatrix rates = currencyService.getLatestRateMatrix(currency);
+        BigDecimal total = BigDecimal.ZERO;
+        long accounts = 0;
+
+        for (AccountCurrencyTotal currencyTotal : accountRepository.sumBalancesByCurrency()) {
+            BigDecimal converted = rates.convert(currencyTotal.getTotal(), currencyTotal.getCurrency(), currency);
+            if (converted == null)
+                throw new ExchangeRateUnavailableException(currencyTotal.getCurrency());
+
+            total = total.add(converted);
+            accounts += currencyTotal.getAccounts();
+        }
 
-    public List<Account> getAllAccounts(){
-        return accountRepository.findAll();
+        return new AccountSummary(currency.toUpperCase(), round(total), accounts, rates.getDate());
     }
 
-    public Account getAccount(String name){
-        return accountRepository.findById(name)
+    // Not transactional: a cache hit should not check out a connection.
+    public AccountView getAccount(String name){
+        return accountCache.get(name)
                 .orElseThrow(() -> new NotFoundException(Account.class, name));
     }
 
+    public AccountCacheStats getAccountCacheStats() {
+        return accountCache.getStats();
+    }
+
+    @Transactional
     public Account createAccount(Account account){
         if(accountRepository.existsById(account.getName()))
             throw new AccountAlreadyExistsException(account.getName());
-        return accountRepository.save(account);
+
+        Account savedAccount = accountRepository.save(account);
+        // Written before the journal entry, so the new row's lock covers it.
+        accountRepository.flush();
+        ledgerService.record(account.getName(), LedgerEventType.OPENING, null, account.getBalance());
+        eventPublisher.publishEvent(new AccountsChangedEvent(account.getName()));
+        return savedAccount;
     }
 
 
+    @Transactional
     public Account editAccount(String name, Account updatedAccount){
 
         Account existingAccount = accountRepository.findById(name)
                 .orElseThrow(() -> new NotFoundException(Account.class, name));
 
+        // Clients that send the version they last read get a conflict instead of overwriting newer changes.
+        if (updatedAccount.getVersion() != null && !updatedAccount.getVersion().equals(existingAccount.getVersion()))
+            throw new ObjectOptimisticLockingFailureException(Account.class, name);
+
+        BigDecimal adjustment = updatedAccount.getBalance().subtract(existingAccount.getBalance());
         existingAccount.setBalance(updatedAccount.getBalance());
         existingAccount.setCurrency(updatedAccount.getCurrency());
 
-        return accountRepository.save(existingAccount);
+        Account savedAccount = accountRepository.save(existingAccount);
+        if (adjustment.signum() != 0) {
+            // The row update takes the lock the journal entry must be appended under.
+            accountRepository.flush();
+            ledgerService.record(name, LedgerEventType.ADJUSTMENT, null, adjustment);
+        }
+        eventPublisher.publishEvent(new AccountsChangedEvent(name));
+        return savedAccount;
     }
 
+    @Transactional
     public void deleteAccount(String name) {
 
         Account account = accountRepository.findById(name)
                 .orElseThrow(() -> new NotFoundException(Account.class, name));
         try {
+            // Flushed here so a row still referenced fails inside the try, and the journal entry is appended under the delete's lock.
             accountRepository.delete(account);
+            accountRepository.flush();
         }catch (DataIntegrityViolationException e) {
             throw new AccountCannotBeDeletedException();
         }
+        ledgerService.record(name, LedgerEventType.CLOSING, null, account.getBalance().negate());
+        eventPublisher.publishEvent(new AccountsChangedEvent(name));
     }
 
 
     @Transactional
     public void deleteAllAccounts() {
+        List<Account> accounts = accountRepository.findAll();
+        changeTracker.accountsDeleted();
         try {
             accountRepository.deleteAll();
+            accountRepository.flush();
         } catch (DataIntegrityViolationException e) {
             throw new AccountCannotBeDeletedException();
         }
+        ledgerService.recordAll(accounts.stream()
+                .collect(Collectors.toMap(Account::getName, account -> account.getBalance().negate())), LedgerEventType.CLOSING);
+        eventPublisher.publishEvent(new AccountsChangedEvent(null));
+    }
+
+    private static BigDecimal round(BigDecimal amount) {
+        return amount == null ? null : amount.setScale(2, RoundingMode.HALF_EVEN);
     }
 }
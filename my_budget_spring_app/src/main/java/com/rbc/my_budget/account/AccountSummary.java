@@ -0,0 +1,6 @@
+package com.rbc.my_budget.account;
+
+import java.math.BigDecimal;
+
+public record AccountSummary(String currency, BigDecimal total, long accounts, String ratesDate) {
+}
@@ -0,0 +1,28 @@
+package com.rbc.my_budget.account;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * Response shape for accounts. Read straight from a constructor projection, so account listings
+ * never load the transactions collection or attach entities to the persistence context.
+ */
+public record AccountView(String name,
+                          BigDecimal balance,
+                          String currency,
+                          @JsonInclude(JsonInclude.Include.NON_NULL) BigDecimal balanceInDefaultCurrency,
+                          Long version) {
+
+    public AccountView(String name, BigDecimal balance, String currency, Long version) {
+        this(name, balance, currency, null, version);
+    }
+
+    public static AccountView of(Account account) {
+        return new AccountView(account.getName(), account.getBalance(), account.getCurrency(), account.getVersion());
+    }
+
+    public AccountView withBalanceInDefaultCurrency(BigDecimal balance) {
+        return new AccountView(name, this.balance, currency, balance, version);
+    }
+}
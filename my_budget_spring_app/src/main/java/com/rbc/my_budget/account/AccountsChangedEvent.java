@@ -0,0 +1,7 @@
+package com.rbc.my_budget.account;
+
+/**
+ * Published by the account write paths. A {@code null} name means any account may have changed.
+ */
+public record AccountsChangedEvent(String accountName) {
+}
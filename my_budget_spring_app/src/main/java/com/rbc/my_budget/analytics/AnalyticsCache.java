@@ -0,0 +1,72 @@
+package com.rbc.my_budget.analytics;
+
+import com.rbc.my_budget.account.AccountNames;
+import com.rbc.my_budget.transaction.TransactionsChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of computed analytics reports. Entries for an account, and every cross-account
+ * entry, are dropped once a transaction write touching that account commits.
+ * <p>
+ * A report computed while a write commits may have read the old rows, so it is only stored if no
+ * invalidation happened since it started.
+ */
+@Component
+public class AnalyticsCache {
+
+    private final Map<Key, Object> entries;
+    private long generation;
+
+    public AnalyticsCache(@Value("${analytics.cache.max-entries:500}") int maxEntries) {
+        int capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> report) {
+
+        long startedAt;
+        synchronized (this) {
+            Object cached = entries.get(key);
+            if (cached != null)
+                return (T) cached;
+            startedAt = generation;
+        }
+
+        T value = report.get();
+
+        synchronized (this) {
+            if (generation == startedAt)
+                entries.put(key, value);
+        }
+        return value;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTransactionsChanged(TransactionsChangedEvent event) {
+        generation++;
+        if (event.accountNames() == null)
+            entries.clear();
+        else
+            entries.keySet().removeIf(key -> key.accountName() == null || AccountNames.contains(event.accountNames(), key.accountName()));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public record Key(String report, String accountName, List<Object> arguments) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.rbc.my_budget.analytics;
+
+import com.rbc.my_budget.transaction.Type;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping(value = "/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @GetMapping(path = "/types")
+    public ResponseEntity<AnalyticsReport<TypeTotal>> getTypeBreakdown(@RequestParam(name = "account", required = false) String accountName,
+                                                                       @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                       @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                       @RequestParam(name = "currency", defaultValue = "EUR") String currency) {
+        return ResponseEntity.ok(analyticsService.getTypeBreakdown(accountName, from, to, currency));
+    }
+
+    @GetMapping(path = "/descriptions")
+    public ResponseEntity<AnalyticsReport<DescriptionTotal>> getTopDescriptions(@RequestParam(name = "account", required = false) String accountName,
+                                                                                @RequestParam(name = "type", required = false) Type type,
+                                                                                @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                                @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                                @RequestParam(name = "limit", defaultValue = "10") int limit,
+                                                                                @RequestParam(name = "currency", defaultValue = "EUR") String currency) {
+        return ResponseEntity.ok(analyticsService.getTopDescriptions(accountName, type, from, to, limit, currency));
+    }
+
+    @GetMapping(path = "/net-flow")
+    public ResponseEntity<AnalyticsReport<PeriodFlow>> getNetFlow(@RequestParam(name = "account", required = false) String accountName,
+                                                                  @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                  @RequestParam(name = "period", defaultValue = "MONTH") FlowPeriod period,
+                                                                  @RequestParam(name = "currency", defaultValue = "EUR") String currency) {
+        return ResponseEntity.ok(analyticsService.getNetFlow(accountName, from, to, period, currency));
+    }
+}
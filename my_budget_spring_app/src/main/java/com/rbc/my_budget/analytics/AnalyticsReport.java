@@ -0,0 +1,18 @@
+package com.rbc.my_budget.analytics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Report body shared by the analytics endpoints. All amounts are in {@code currency}, converted at
+ * the rates published on {@code ratesDate}.
+ */
+public record AnalyticsReport<T>(@JsonInclude(JsonInclude.Include.NON_NULL) String accountName,
+                                 String currency,
+                                 String ratesDate,
+                                 LocalDate from,
+                                 LocalDate to,
+                                 List<T> items) {
+}
@@ -0,0 +1,46 @@
+package com.rbc.my_budget.analytics;
+
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.Type;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Read-only aggregate queries over the transaction table. Every query is bounded by booking time,
+ * so it runs off the {@code (account_name, booked_at, id)} and {@code (booked_at, id)} indexes.
+ */
+@Repository
+public interface AnalyticsRepository extends org.springframework.data.repository.Repository<Transaction, Long> {
+
+    @Query("select new com.rbc.my_budget.analytics.TypeCurrencyTotal(t.type, t.currency, sum(t.amount), count(t)) " +
+            "from Transaction t where (:accountName is null or t.account.name = :accountName) " +
+            "and t.bookedAt >= :from and t.bookedAt < :before group by t.type, t.currency")
+    List<TypeCurrencyTotal> sumByType(@Param("accountName") String accountName,
+                                      @Param("from") Instant from, @Param("before") Instant before);
+
+    @Query("select new com.rbc.my_budget.analytics.DescriptionCurrencyTotal(t.description, t.currency, sum(t.amount), count(t)) " +
+            "from Transaction t where (:accountName is null or t.account.name = :accountName) and t.type = :type " +
+            "and t.bookedAt >= :from and t.bookedAt < :before group by t.description, t.currency")
+    List<DescriptionCurrencyTotal> sumByDescription(@Param("accountName") String accountName, @Param("type") Type type,
+                                                    @Param("from") Instant from, @Param("before") Instant before);
+
+    // Not grouped by day in SQL: year()/month()/day() follow the database session time zone, and days
+    // here are cut in UTC like the range bounds.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.rbc.my_budget.analytics.BookedFlow(t.bookedAt, t.type, t.currency, t.amount) " +
+            "from Transaction t where (:accountName is null or t.account.name = :accountName) " +
+            "and t.bookedAt >= :from and t.bookedAt < :before")
+    Stream<BookedFlow> streamFlows(@Param("accountName") String accountName,
+                                   @Param("from") Instant from, @Param("before") Instant before);
+}
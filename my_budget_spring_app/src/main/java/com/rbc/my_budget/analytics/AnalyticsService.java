@@ -0,0 +1,153 @@
+package com.rbc.my_budget.analytics;
+
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.currency.RateMatrix;
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import com.rbc.my_budget.exception.InvalidFilterException;
+import com.rbc.my_budget.transaction.Type;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Spend and cash-flow breakdowns for one account, or across all accounts when no account is given.
+ * Grouping happens per transaction currency, in SQL except for the UTC days of the net flow; only the
+ * resulting groups are converted into the reporting currency and merged here. Reports are cached until a transaction write invalidates
+ * them.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService {
+
+    static final int MAX_TOP_DESCRIPTIONS = 100;
+
+    private final AnalyticsRepository analyticsRepository;
+    private final AnalyticsCache analyticsCache;
+    private final CurrencyService currencyService;
+    private final Clock clock;
+
+    public AnalyticsReport<TypeTotal> getTypeBreakdown(String accountName, LocalDate from, LocalDate to, String currency) {
+        return report("types", accountName, from, to, currency, List.of(), (range, rates) -> {
+
+            Map<Type, Sum> sums = new EnumMap<>(Type.class);
+            for (TypeCurrencyTotal total : analyticsRepository.sumByType(accountName, range.from(), range.before()))
+                sums.merge(total.type(), new Sum(convert(rates, total.total(), total.currency(), range.currency()), total.entries()), Sum::plus);
+
+            return sums.entrySet().stream()
+                    .map(entry -> new TypeTotal(entry.getKey(), round(entry.getValue().total()), entry.getValue().entries()))
+                    .toList();
+        });
+    }
+
+    public AnalyticsReport<DescriptionTotal> getTopDescriptions(String accountName, Type type, LocalDate from, LocalDate to,
+                                                               int limit, String currency) {
+        Type reportedType = type == null ? Type.DEBIT : type;
+        int top = Math.clamp(limit, 1, MAX_TOP_DESCRIPTIONS);
+
+        return report("descriptions", accountName, from, to, currency, List.of(reportedType, top), (range, rates) -> {
+
+            Map<String, Sum> sums = new HashMap<>();
+            for (DescriptionCurrencyTotal total : analyticsRepository.sumByDescription(accountName, reportedType, range.from(), range.before()))
+                sums.merge(total.description(), new Sum(convert(rates, total.total(), total.currency(), range.currency()), total.entries()), Sum::plus);
+
+            return sums.entrySet().stream()
+                    .sorted(Map.Entry.<String, Sum>comparingByValue(Comparator.comparing(Sum::total)).reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(top)
+                    .map(entry -> new DescriptionTotal(entry.getKey(), round(entry.getValue().total()), entry.getValue().entries()))
+                    .toList();
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public AnalyticsReport<PeriodFlow> getNetFlow(String accountName, LocalDate from, LocalDate to, FlowPeriod period, String currency) {
+        FlowPeriod reportedPeriod = period == null ? FlowPeriod.MONTH : period;
+
+        return report("net-flow", accountName, from, to, currency, List.of(reportedPeriod), (range, rates) -> {
+
+            // Bucketed by UTC day here, as the range bounds and the monthly totals are.
+            Map<FlowKey, BigDecimal> totals = new HashMap<>();
+            try (Stream<BookedFlow> rows = analyticsRepository.streamFlows(accountName, range.from(), range.before())) {
+                rows.forEach(row -> totals.merge(new FlowKey(reportedPeriod.startOf(LocalDate.ofInstant(row.bookedAt(), ZoneOffset.UTC)),
+                        row.type(), row.currency()), row.amount(), BigDecimal::add));
+            }
+
+            Map<LocalDate, BigDecimal[]> flows = new TreeMap<>();
+            totals.forEach((key, total) -> {
+                BigDecimal[] flow = flows.computeIfAbsent(key.start(), start -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                int slot = Type.CREDIT.equals(key.type()) ? 0 : 1;
+                flow[slot] = flow[slot].add(convert(rates, total, key.currency(), range.currency()));
+            });
+
+            return flows.entrySet().stream()
+                    .map(entry -> new PeriodFlow(entry.getKey(), round(entry.getValue()[0]), round(entry.getValue()[1]),
+                            round(entry.getValue()[0].subtract(entry.getValue()[1]))))
+                    .toList();
+        });
+    }
+
+    private <T> AnalyticsReport<T> report(String name, String accountName, LocalDate from, LocalDate to, String currency,
+                                          List<Object> arguments, ReportQuery<T> query) {
+
+        LocalDate last = to == null ? LocalDate.now(clock) : to;
+        LocalDate first = from == null ? last.withDayOfMonth(1).minusMonths(11) : from;
+        if (first.isAfter(last))
+            throw new InvalidFilterException("Date range start cannot be after its end.");
+
+        String reportingCurrency = currency.toUpperCase(Locale.ROOT);
+        RateMatrix rates = currencyService.getLatestRateMatrix(reportingCurrency);
+        Range range = new Range(first.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                last.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant(), reportingCurrency);
+
+        // Keyed on the rates date too, so a report never outlives the rates it was converted with.
+        AnalyticsCache.Key key = new AnalyticsCache.Key(name, accountName,
+                List.of(first, last, reportingCurrency, String.valueOf(rates.getDate()), arguments));
+        List<T> items = analyticsCache.get(key, () -> query.run(range, rates));
+
+        return new AnalyticsReport<>(accountName, reportingCurrency, rates.getDate(), first, last, items);
+    }
+
+    private static BigDecimal convert(RateMatrix rates, BigDecimal amount, String from, String to) {
+        BigDecimal converted = rates.convert(amount, from, to);
+        if (converted == null)
+            throw new ExchangeRateUnavailableException(from);
+        return converted;
+    }
+
+    private static BigDecimal round(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private record Range(Instant from, Instant before, String currency) {
+    }
+
+    private record FlowKey(LocalDate start, Type type, String currency) {
+    }
+
+    private record Sum(BigDecimal total, long entries) {
+
+        Sum plus(Sum other) {
+            return new Sum(total.add(other.total), entries + other.entries);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReportQuery<T> {
+        List<T> run(Range range, RateMatrix rates);
+    }
+}
@@ -0,0 +1,12 @@
+package com.rbc.my_budget.analytics;
+
+import com.rbc.my_budget.transaction.Type;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * The columns of one transaction the net flow report is bucketed from.
+ */
+public record BookedFlow(Instant bookedAt, Type type, String currency, BigDecimal amount) {
+}
@@ -0,0 +1,6 @@
+package com.rbc.my_budget.analytics;
+
+import java.math.BigDecimal;
+
+public record DescriptionCurrencyTotal(String description, String currency, BigDecimal total, Long entries) {
+}
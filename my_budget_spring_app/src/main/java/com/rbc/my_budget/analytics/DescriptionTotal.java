@@ -0,0 +1,6 @@
+package com.rbc.my_budget.analytics;
+
+import java.math.BigDecimal;
+
+public record DescriptionTotal(String description, BigDecimal total, long entries) {
+}
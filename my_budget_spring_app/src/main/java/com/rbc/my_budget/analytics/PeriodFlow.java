@@ -0,0 +1,7 @@
+package com.rbc.my_budget.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record PeriodFlow(LocalDate periodStart, BigDecimal credits, BigDecimal debits, BigDecimal net) {
+}
@@ -0,0 +1,8 @@
+package com.rbc.my_budget.analytics;
+
+import com.rbc.my_budget.transaction.Type;
+
+import java.math.BigDecimal;
+
+public record TypeTotal(Type type, BigDecimal total, long entries) {
+}
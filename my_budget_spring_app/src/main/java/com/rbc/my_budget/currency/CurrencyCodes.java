@@ -0,0 +1,42 @@
+package com.rbc.my_budget.currency;
+
+/**
+ * Packs three-letter currency codes into a dense index in {@code [0, SIZE)} so rate tables
+ * and lookups can use plain arrays. Packing is case-insensitive and allocation-free.
+ */
+public final class CurrencyCodes {
+
+    public static final int SIZE = 26 * 26 * 26;
+
+    private CurrencyCodes() {
+    }
+
+    public static int index(CharSequence code) {
+        if (code == null || code.length() != 3)
+            return -1;
+
+        int first = letter(code.charAt(0));
+        int second = letter(code.charAt(1));
+        int third = letter(code.charAt(2));
+
+        if ((first | second | third) < 0)
+            return -1;
+
+        return (first * 26 + second) * 26 + third;
+    }
+
+    public static String code(int index) {
+        return new String(new char[]{
+                (char) ('a' + index / (26 * 26)),
+                (char) ('a' + index / 26 % 26),
+                (char) ('a' + index % 26)});
+    }
+
+    private static int letter(char c) {
+        if (c >= 'a' && c <= 'z')
+            return c - 'a';
+        if (c >= 'A' && c <= 'Z')
+            return c - 'A';
+        return -1;
+    }
+}
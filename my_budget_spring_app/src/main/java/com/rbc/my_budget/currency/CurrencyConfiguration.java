@@ -0,0 +1,18 @@
+package com.rbc.my_budget.currency;
+
+import jakarta.validation.ValidatorFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CurrencyConfiguration {
+
+    // Lets JPA pre-persist validation share Spring's validator factory, so @ValidCurrency
+    // gets the CurrencyRegistry bean instead of a separately constructed validator.
+    @Bean
+    public HibernatePropertiesCustomizer validatorFactoryCustomizer(ValidatorFactory validatorFactory) {
+        return properties -> properties.put(AvailableSettings.JAKARTA_VALIDATION_FACTORY, validatorFactory);
+    }
+}
@@ -0,0 +1,20 @@
+package com.rbc.my_budget.currency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/currencies")
+@RequiredArgsConstructor
+public class CurrencyController {
+
+    private final CurrencyService currencyService;
+
+    @GetMapping(path = "/rates/stats")
+    public ResponseEntity<ExchangeRateCacheStats> getExchangeRateCacheStats(){
+        return ResponseEntity.ok(currencyService.getExchangeRateCacheStats());
+    }
+}
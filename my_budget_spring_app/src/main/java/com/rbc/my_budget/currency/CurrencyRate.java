@@ -0,0 +1,43 @@
+package com.rbc.my_budget.currency;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "currency_rate",
+        uniqueConstraints = @UniqueConstraint(name = "uk_currency_rate_date_base_quote", columnNames = {"rate_date", "base", "quote"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CurrencyRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    @Column(nullable = false, length = 3)
+    private String base;
+
+    @Column(nullable = false, length = 3)
+    private String quote;
+
+    @Column(nullable = false, precision = 24, scale = 12)
+    private BigDecimal rate;
+
+    public CurrencyRate(LocalDate rateDate, String base, String quote, BigDecimal rate) {
+        this.rateDate = rateDate;
+        this.base = base;
+        this.quote = quote;
+        this.rate = rate;
+    }
+}
@@ -0,0 +1,22 @@
+package com.rbc.my_budget.currency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CurrencyRateRepository extends JpaRepository<CurrencyRate, Long> {
+
+    boolean existsByRateDateAndBase(LocalDate rateDate, String base);
+
+    List<CurrencyRate> findByRateDateAndBase(LocalDate rateDate, String base);
+
+    List<CurrencyRate> findByBaseAndRateDateGreaterThanEqual(String base, LocalDate from);
+
+    @Query("select max(r.rateDate) from CurrencyRate r where r.base = :base and r.rateDate <= :date")
+    Optional<LocalDate> findLatestRateDate(String base, LocalDate date);
+}
@@ -0,0 +1,94 @@
+package com.rbc.my_budget.currency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Application-wide set of known currency codes backing {@link ValidCurrency}.
+ * Seeded from a bundled snapshot so validation never waits on the network, then refreshed
+ * in the background from the currency API. Lookups are a single bit test on the packed code.
+ */
+@Component
+public class CurrencyRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyRegistry.class);
+    private static final String CURRENCY_API_URL = "https://cdn.jsdelivr.net/npm/@fawazahmed0/currency-api@latest/v1/currencies.json";
+    private static final String SNAPSHOT_RESOURCE = "/currency/currencies.json";
+
+    private final RestTemplate restTemplate;
+    private final BitSet snapshot;
+    private volatile BitSet knownCurrencies;
+
+    public CurrencyRegistry(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this.restTemplate = restTemplate;
+        this.snapshot = loadSnapshot(objectMapper);
+        this.knownCurrencies = snapshot;
+    }
+
+    public boolean isValid(CharSequence currency) {
+        int index = CurrencyCodes.index(currency);
+        return index >= 0 && knownCurrencies.get(index);
+    }
+
+    public int size() {
+        return knownCurrencies.cardinality();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(cron = "${currency.registry.refresh-cron:0 30 0 * * *}", zone = "UTC")
+    public void refresh() {
+        try {
+            Map<?, ?> response = restTemplate.getForObject(CURRENCY_API_URL, Map.class);
+
+            if (response == null || response.isEmpty()) {
+                logger.warn("Received empty currency list, keeping {} known currencies.", size());
+                return;
+            }
+
+            BitSet refreshed = (BitSet) snapshot.clone();
+            refreshed.or(toBitSet(response));
+            knownCurrencies = refreshed;
+            logger.info("Currency registry refreshed, {} known currencies.", refreshed.cardinality());
+        } catch (Exception e) {
+            logger.warn("Error refreshing currencies, keeping {} known currencies.", size(), e);
+        }
+    }
+
+    private BitSet loadSnapshot(ObjectMapper objectMapper) {
+        try (InputStream is = getClass().getResourceAsStream(SNAPSHOT_RESOURCE)) {
+            if (is == null)
+                throw new IllegalStateException("Missing currency snapshot " + SNAPSHOT_RESOURCE);
+            return toBitSet(objectMapper.readValue(is, Map.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error loading currency snapshot " + SNAPSHOT_RESOURCE, e);
+        }
+    }
+
+    private static BitSet toBitSet(Map<?, ?> currencies) {
+        BitSet bits = new BitSet(CurrencyCodes.SIZE);
+        for (Object code : currencies.keySet()) {
+            int index = code instanceof String ? CurrencyCodes.index((String) code) : -1;
+            if (index >= 0)
+                bits.set(index);
+        }
+        return bits;
+    }
+}
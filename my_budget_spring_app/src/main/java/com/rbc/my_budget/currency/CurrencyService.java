@@ -1,41 +1,96 @@
 package com.rbc.my_budget.currency;
 
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import com.rbc.my_budget.exception.UnsupportedCurrencyException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
-import java.util.Map;
+import java.time.Clock;
+import java.time.LocalDate;
 
 @Service
 @RequiredArgsConstructor
 public class CurrencyService {
     private static final Logger logger = LoggerFactory.getLogger(CurrencyService.class);
 
-    private final RestTemplate restTemplate;
-    private static final String EXCHANGE_API_URL = "https://latest.currency-api.pages.dev/v1/currencies/";
+    private final ExchangeRateProvider exchangeRateProvider;
+    private final ExchangeRateCache exchangeRateCache;
+    private final ExchangeRateHistory exchangeRateHistory;
+    private final ExchangeRateProperties exchangeRateProperties;
+    private final Clock clock;
 
     public BigDecimal getExchangeRate(String baseCurrency, String targetCurrency) {
 
-        String url = UriComponentsBuilder.fromHttpUrl(EXCHANGE_API_URL+ baseCurrency.toLowerCase()+ ".json")
-                .toUriString();
+        if (baseCurrency.equalsIgnoreCase(targetCurrency))
+            return BigDecimal.ONE;
 
-        CurrencyRateResponse response = restTemplate.getForObject(url, CurrencyRateResponse.class);
+        return toExchangeRate(getRateMatrix(), baseCurrency, targetCurrency);
+    }
+
+    /**
+     * Rate recorded for {@code date}, or for the nearest earlier day that has one. The live rates stand
+     * in only for today, before the first refresh of the day is recorded; a date older than the whole
+     * history is refused rather than converted at today's rate.
+     */
+    public BigDecimal getExchangeRate(String baseCurrency, String targetCurrency, LocalDate date) {
+
+        if (baseCurrency.equalsIgnoreCase(targetCurrency))
+            return BigDecimal.ONE;
+
+        RateMatrix matrix = exchangeRateHistory.getMatrix(date)
+                .orElseGet(() -> getTodaysRateMatrix(date, baseCurrency));
+
+        return toExchangeRate(matrix, baseCurrency, targetCurrency);
+    }
+
+    public RateMatrix getLatestRateMatrix(String targetCurrency) {
+
+        RateMatrix matrix = exchangeRateHistory.getMatrix(LocalDate.now(clock))
+                .orElseGet(this::getRateMatrix);
+
+        if (!matrix.supports(targetCurrency))
+            throw new UnsupportedCurrencyException(targetCurrency);
+
+        return matrix;
+    }
+
+    public RateMatrix getRateMatrix() {
+        return exchangeRateCache.getMatrix(exchangeRateProperties.anchor(), exchangeRateProvider::fetchRates);
+    }
+
+    public RateMatrix refreshRateMatrix() {
+        return exchangeRateCache.reload(exchangeRateProperties.anchor(), exchangeRateProvider::fetchRates);
+    }
+
+    public ExchangeRateCacheStats getExchangeRateCacheStats() {
+        return exchangeRateCache.getStats();
+    }
+
+    private RateMatrix getTodaysRateMatrix(LocalDate date, String currency) {
+
+        if (date.isBefore(LocalDate.now(clock))) {
+            logger.warn("No exchange rates recorded on or before {}", date);
+            throw new ExchangeRateUnavailableException(currency);
+        }
+
+        // Bounded by the cache's wait budget; a slow upstream yields stale rates or a 503, not a stall.
+        logger.debug("No exchange rates recorded for {} yet, using the live rates", date);
+        return getRateMatrix();
+    }
+
+    private BigDecimal toExchangeRate(RateMatrix matrix, String baseCurrency, String targetCurrency) {
 
-        if (response != null) {
-            Map<String, BigDecimal> targetRates = response.getRates().get(baseCurrency.toLowerCase());
+        double rate = matrix.rate(baseCurrency, targetCurrency);
 
-            if (targetRates != null)
-                return targetRates.get(targetCurrency.toLowerCase());
-            else
-                logger.error("No rates found for base currency: {} in response for URL: {}", baseCurrency, url);
-        } else
-            logger.error("Received null response from API for URL: {}", url);
+        if (Double.isNaN(rate)) {
+            logger.error("No exchange rate found from {} to {}", baseCurrency, targetCurrency);
+            return null;
+        }
 
-        return null;
+        return BigDecimal.valueOf(rate);
     }
 
 
@@ -0,0 +1,253 @@
+package com.rbc.my_budget.currency;
+
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-process cache of exchange rate snapshots keyed by the currency they are quoted against.
+ * Entries expire after the configured TTL or at the next UTC midnight, whichever comes first,
+ * since the upstream API publishes new rates once a day. Concurrent misses for the same base
+ * currency share a single fetch.
+ * <p>
+ * Expired entries younger than {@code max-stale} are served immediately while a refresh runs in
+ * the background. Callers with nothing to serve wait at most {@code wait-budget} for a fetch.
+ */
+@Component
+public class ExchangeRateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeRateCache.class);
+
+    private final Duration ttl;
+    private final Duration maxStale;
+    private final Duration waitBudget;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Executor executor;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder fetchFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder fetchNanos = new LongAdder();
+    private final AtomicLong maxFetchNanos = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ExchangeRateCache(ExchangeRateProperties properties, Clock clock,
+                             @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        this.ttl = properties.cache().ttl();
+        this.maxStale = properties.maxStale();
+        this.waitBudget = properties.waitBudget();
+        this.maxEntries = Math.max(1, properties.cache().maxEntries());
+        this.clock = clock;
+        this.executor = executor;
+    }
+
+    public RateMatrix getMatrix(String baseCurrency, Function<String, RateMatrix> loader) {
+        String key = baseCurrency.toLowerCase(Locale.ROOT);
+        Instant now = clock.instant();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isFresh(now)) {
+            hits.increment();
+            entry.touch();
+            return entry.matrix();
+        }
+
+        if (entry != null && entry.isServable(now, maxStale)) {
+            staleHits.increment();
+            entry.touch();
+            refresh(key, loader);
+            return entry.matrix();
+        }
+
+        misses.increment();
+        return await(key, refresh(key, loader));
+    }
+
+    public RateMatrix reload(String baseCurrency, Function<String, RateMatrix> loader) {
+        String key = baseCurrency.toLowerCase(Locale.ROOT);
+        return await(key, refresh(key, loader));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Moves every time a fetched snapshot replaces what the cache serves, so callers can tell whether
+     * live rates changed without loading them.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public ExchangeRateCacheStats getStats() {
+        long hitCount = hits.sum();
+        long staleHitCount = staleHits.sum();
+        long missCount = misses.sum();
+        long fetchCount = fetches.sum();
+        long requests = hitCount + staleHitCount + missCount;
+
+        return new ExchangeRateCacheStats(
+                hitCount,
+                staleHitCount,
+                missCount,
+                fetchCount,
+                fetchFailures.sum(),
+                evictions.sum(),
+                entries.size(),
+                requests == 0 ? 0.0 : (double) (hitCount + staleHitCount) / requests,
+                fetchCount == 0 ? 0.0 : fetchNanos.sum() / 1_000_000.0 / fetchCount,
+                maxFetchNanos.get() / 1_000_000.0);
+    }
+
+    private CompletableFuture<Entry> refresh(String key, Function<String, RateMatrix> loader) {
+        CompletableFuture<Entry> pending = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, pending);
+
+        if (existing != null)
+            return existing;
+
+        try {
+            executor.execute(() -> {
+                try {
+                    // Another caller may have finished fetching between our miss and claiming the fetch.
+                    Entry entry = entries.get(key);
+                    pending.complete(entry != null && entry.isFresh(clock.instant()) ? entry : fetch(key, loader));
+                } catch (Throwable e) {
+                    pending.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, pending);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, pending);
+            pending.completeExceptionally(e);
+        }
+        return pending;
+    }
+
+    private RateMatrix await(String key, CompletableFuture<Entry> pending) {
+        try {
+            return pending.get(waitBudget.toMillis(), TimeUnit.MILLISECONDS).matrix();
+        } catch (TimeoutException e) {
+            logger.warn("Exchange rates for {} not available within {}", key, waitBudget);
+            throw new ExchangeRateUnavailableException(key, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new ExchangeRateUnavailableException(key, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExchangeRateUnavailableException(key, e);
+        }
+    }
+
+    private Entry fetch(String key, Function<String, RateMatrix> loader) {
+        long start = System.nanoTime();
+        RateMatrix matrix;
+        try {
+            matrix = loader.apply(key);
+        } catch (RuntimeException e) {
+            fetchFailures.increment();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            fetches.increment();
+            fetchNanos.add(elapsed);
+            maxFetchNanos.accumulateAndGet(elapsed, Math::max);
+        }
+
+        Instant now = clock.instant();
+        Entry entry = new Entry(matrix == null ? RateMatrix.EMPTY : matrix, now, expiryFor(now));
+
+        if (entry.matrix().isEmpty()) {
+            fetchFailures.increment();
+            Entry previous = entries.get(key);
+            return previous != null && previous.isServable(now, maxStale) ? previous : entry;
+        }
+
+        entries.put(key, entry);
+        generation.incrementAndGet();
+        evictIfNeeded();
+        return entry;
+    }
+
+    private Instant expiryFor(Instant now) {
+        Instant nextDailyUpdate = LocalDate.ofInstant(now, ZoneOffset.UTC).plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant ttlExpiry = now.plus(ttl);
+        return ttlExpiry.isBefore(nextDailyUpdate) ? ttlExpiry : nextDailyUpdate;
+    }
+
+    private void evictIfNeeded() {
+        while (entries.size() > maxEntries) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                    .ifPresent(eldest -> {
+                        if (entries.remove(eldest.getKey(), eldest.getValue())) {
+                            evictions.increment();
+                            logger.debug("Evicted exchange rates for base currency {}", eldest.getKey());
+                        }
+                    });
+        }
+    }
+
+    private static final class Entry {
+
+        private final RateMatrix matrix;
+        private final Instant fetchedAt;
+        private final Instant expiresAt;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Entry(RateMatrix matrix, Instant fetchedAt, Instant expiresAt) {
+            this.matrix = matrix;
+            this.fetchedAt = fetchedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        private RateMatrix matrix() {
+            return matrix;
+        }
+
+        private boolean isFresh(Instant now) {
+            return now.isBefore(expiresAt);
+        }
+
+        private boolean isServable(Instant now, Duration maxStale) {
+            return !matrix.isEmpty() && now.isBefore(fetchedAt.plus(maxStale));
+        }
+
+        private void touch() {
+            lastAccess = System.nanoTime();
+        }
+    }
+}
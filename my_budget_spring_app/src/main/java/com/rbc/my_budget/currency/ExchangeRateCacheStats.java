@@ -0,0 +1,13 @@
+package com.rbc.my_budget.currency;
+
+public record ExchangeRateCacheStats(long hits,
+                                     long staleHits,
+                                     long misses,
+                                     long fetches,
+                                     long fetchFailures,
+                                     long evictions,
+                                     int size,
+                                     double hitRatio,
+                                     double averageFetchMillis,
+                                     double maxFetchMillis) {
+}
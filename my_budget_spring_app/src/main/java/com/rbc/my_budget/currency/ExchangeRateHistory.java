@@ -0,0 +1,133 @@
+package com.rbc.my_budget.currency;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Date-indexed exchange rates persisted in {@code currency_rate}. The most recent
+ * {@code index-days} days are kept in memory as rate matrices; older dates are read from the database
+ * and the last {@code cache-days} of those reads are kept in a small LRU.
+ */
+@Component
+public class ExchangeRateHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeRateHistory.class);
+
+    private final CurrencyRateRepository currencyRateRepository;
+    private final String anchor;
+    private final int indexDays;
+    private final Clock clock;
+
+    private final ConcurrentNavigableMap<LocalDate, RateMatrix> index = new ConcurrentSkipListMap<>();
+    private final Map<LocalDate, RateMatrix> recent;
+
+    public ExchangeRateHistory(CurrencyRateRepository currencyRateRepository, ExchangeRateProperties properties, Clock clock) {
+        this.currencyRateRepository = currencyRateRepository;
+        this.anchor = properties.anchor().toLowerCase();
+        this.indexDays = Math.max(1, properties.history().indexDays());
+        this.clock = clock;
+        int capacity = Math.max(1, properties.history().cacheDays());
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, RateMatrix> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void loadIndex() {
+        LocalDate from = LocalDate.now(clock).minusDays(indexDays - 1L);
+
+        Map<LocalDate, List<CurrencyRate>> rowsByDate = currencyRateRepository.findByBaseAndRateDateGreaterThanEqual(anchor, from)
+                .stream()
+                .collect(Collectors.groupingBy(CurrencyRate::getRateDate));
+
+        rowsByDate.forEach((date, rows) -> index.put(date, toMatrix(date, rows)));
+        logger.info("Loaded {} days of exchange rates into the index", rowsByDate.size());
+    }
+
+    public Optional<RateMatrix> getMatrix(LocalDate date) {
+        Map.Entry<LocalDate, RateMatrix> indexed = index.floorEntry(date);
+        if (indexed != null)
+            return Optional.of(indexed.getValue());
+
+        return currencyRateRepository.findLatestRateDate(anchor, date).map(this::loadMatrix);
+    }
+
+    @Transactional
+    public void record(RateMatrix matrix) {
+        LocalDate date = rateDate(matrix);
+        String base = matrix.getAnchor().toLowerCase();
+
+        if (!currencyRateRepository.existsByRateDateAndBase(date, base)) {
+            List<CurrencyRate> rows = new ArrayList<>(matrix.size());
+            matrix.forEachRate((quote, rate) -> rows.add(new CurrencyRate(date, base, quote, BigDecimal.valueOf(rate))));
+            currencyRateRepository.saveAll(rows);
+            logger.info("Stored {} exchange rates for {}", rows.size(), date);
+        }
+
+        index.put(date, matrix);
+        index.headMap(LocalDate.now(clock).minusDays(indexDays - 1L)).clear();
+    }
+
+    /**
+     * Most recent date held in memory; never touches the database, so it is cheap enough to read on
+     * every request.
+     */
+    public Optional<LocalDate> latestIndexedDate() {
+        return index.isEmpty() ? Optional.empty() : Optional.of(index.lastKey());
+    }
+
+    public int indexedDays() {
+        return index.size();
+    }
+
+    private LocalDate rateDate(RateMatrix matrix) {
+        try {
+            if (matrix.getDate() != null)
+                return LocalDate.parse(matrix.getDate());
+        } catch (DateTimeParseException e) {
+            logger.warn("Unexpected rate date {}, using today", matrix.getDate());
+        }
+        return LocalDate.now(clock);
+    }
+
+    private RateMatrix loadMatrix(LocalDate latest) {
+        synchronized (recent) {
+            RateMatrix cached = recent.get(latest);
+            if (cached != null)
+                return cached;
+        }
+
+        RateMatrix matrix = toMatrix(latest, currencyRateRepository.findByRateDateAndBase(latest, anchor));
+        synchronized (recent) {
+            recent.put(latest, matrix);
+        }
+        return matrix;
+    }
+
+    private RateMatrix toMatrix(LocalDate date, List<CurrencyRate> rows) {
+        Map<String, BigDecimal> rates = new HashMap<>(rows.size() * 2);
+        for (CurrencyRate row : rows)
+            rates.put(row.getQuote(), row.getRate());
+        return RateMatrix.of(anchor, date.toString(), rates);
+    }
+}
@@ -0,0 +1,34 @@
+package com.rbc.my_budget.currency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "currency.rates")
+public record ExchangeRateProperties(@DefaultValue("eur") String anchor,
+                                     @DefaultValue("2s") Duration waitBudget,
+                                     @DefaultValue("7d") Duration maxStale,
+                                     @DefaultValue Cache cache,
+                                     @DefaultValue Http http,
+                                     @DefaultValue File file,
+                                     @DefaultValue History history) {
+
+    public record Cache(@DefaultValue("24h") Duration ttl,
+                        @DefaultValue("32") int maxEntries) {
+    }
+
+    public record Http(@DefaultValue("https://latest.currency-api.pages.dev/v1/currencies/") String url,
+                       @DefaultValue("1s") Duration connectTimeout,
+                       @DefaultValue("2s") Duration readTimeout,
+                       @DefaultValue("3") int failureThreshold,
+                       @DefaultValue("30s") Duration openDuration) {
+    }
+
+    public record File(@DefaultValue("classpath:currency/rates.json") String location) {
+    }
+
+    public record History(@DefaultValue("31") int indexDays,
+                          @DefaultValue("8") int cacheDays) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.rbc.my_budget.currency;
+
+public interface ExchangeRateProvider {
+
+    RateMatrix fetchRates(String anchorCurrency);
+}
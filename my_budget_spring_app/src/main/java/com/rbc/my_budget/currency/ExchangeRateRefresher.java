@@ -0,0 +1,40 @@
+package com.rbc.my_budget.currency;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ExchangeRateRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeRateRefresher.class);
+
+    private final CurrencyService currencyService;
+    private final ExchangeRateHistory exchangeRateHistory;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(cron = "${currency.rates.history.refresh-cron:0 15 0 * * *}", zone = "UTC")
+    public void refresh() {
+        try {
+            RateMatrix matrix = currencyService.refreshRateMatrix();
+
+            if (matrix.isEmpty())
+                logger.warn("No exchange rates received, history not updated");
+            else
+                exchangeRateHistory.record(matrix);
+        } catch (RuntimeException e) {
+            logger.warn("Error refreshing exchange rate history", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.rbc.my_budget.currency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Reads rates from a local document in the same format as the currency API, for offline
+ * runs and benchmarks. The document may be quoted against any currency; pairs are triangulated.
+ */
+@Component
+@ConditionalOnProperty(prefix = "currency.rates", name = "provider", havingValue = "file")
+public class FileExchangeRateProvider implements ExchangeRateProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileExchangeRateProvider.class);
+
+    private final Resource resource;
+    private final ObjectMapper objectMapper;
+
+    public FileExchangeRateProvider(ResourceLoader resourceLoader, ObjectMapper objectMapper, ExchangeRateProperties properties) {
+        this.resource = resourceLoader.getResource(properties.file().location());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public RateMatrix fetchRates(String anchorCurrency) {
+
+        try (InputStream is = resource.getInputStream()) {
+            CurrencyRateResponse response = objectMapper.readValue(is, CurrencyRateResponse.class);
+
+            Map<String, BigDecimal> anchorRates = response.getRates().get(anchorCurrency.toLowerCase());
+            if (anchorRates != null)
+                return RateMatrix.of(anchorCurrency, response.getDate(), anchorRates);
+
+            return response.getRates().entrySet().stream()
+                    .findFirst()
+                    .map(rates -> RateMatrix.of(rates.getKey(), response.getDate(), rates.getValue()))
+                    .orElse(RateMatrix.EMPTY);
+        } catch (IOException e) {
+            logger.error("Error reading exchange rates from {}", resource, e);
+            throw new ExchangeRateUnavailableException(anchorCurrency, e);
+        }
+    }
+}
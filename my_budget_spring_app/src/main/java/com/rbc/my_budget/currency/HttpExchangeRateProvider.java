@@ -0,0 +1,73 @@
+package com.rbc.my_budget.currency;
+
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(prefix = "currency.rates", name = "provider", havingValue = "http", matchIfMissing = true)
+public class HttpExchangeRateProvider implements ExchangeRateProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpExchangeRateProvider.class);
+
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final String exchangeApiUrl;
+
+    public HttpExchangeRateProvider(RestTemplateBuilder restTemplateBuilder, ExchangeRateProperties properties, Clock clock) {
+        ExchangeRateProperties.Http http = properties.http();
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(http.connectTimeout())
+                .setReadTimeout(http.readTimeout())
+                .build();
+        this.circuitBreaker = new CircuitBreaker("exchange-rate-api", http.failureThreshold(), http.openDuration(), clock);
+        this.exchangeApiUrl = http.url();
+    }
+
+    @Override
+    public RateMatrix fetchRates(String anchorCurrency) {
+
+        if (!circuitBreaker.tryAcquire())
+            throw new ExchangeRateUnavailableException(anchorCurrency);
+
+        String url = UriComponentsBuilder.fromHttpUrl(exchangeApiUrl + anchorCurrency.toLowerCase() + ".json")
+                .toUriString();
+
+        CurrencyRateResponse response;
+        try {
+            response = restTemplate.getForObject(url, CurrencyRateResponse.class);
+        } catch (RestClientException e) {
+            circuitBreaker.onFailure();
+            logger.error("Error fetching exchange rates from URL: {}", url, e);
+            throw new ExchangeRateUnavailableException(anchorCurrency, e);
+        }
+
+        if (response != null) {
+            Map<String, BigDecimal> anchorRates = response.getRates().get(anchorCurrency.toLowerCase());
+
+            if (anchorRates != null) {
+                circuitBreaker.onSuccess();
+                return RateMatrix.of(anchorCurrency, response.getDate(), anchorRates);
+            } else
+                logger.error("No rates found for base currency: {} in response for URL: {}", anchorCurrency, url);
+        } else
+            logger.error("Received null response from API for URL: {}", url);
+
+        circuitBreaker.onFailure();
+        return RateMatrix.EMPTY;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+}
@@ -0,0 +1,100 @@
+package com.rbc.my_budget.currency;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Immutable snapshot of every rate quoted against a single anchor currency.
+ * Any pair is derived by triangulation: {@code rate(a, b) = perAnchor[b] / perAnchor[a]}.
+ */
+public final class RateMatrix {
+
+    public static final RateMatrix EMPTY = new RateMatrix(null, null, emptyTable(), 0);
+
+    private final String anchor;
+    private final String date;
+    private final double[] perAnchor;
+    private final int size;
+
+    private RateMatrix(String anchor, String date, double[] perAnchor, int size) {
+        this.anchor = anchor;
+        this.date = date;
+        this.perAnchor = perAnchor;
+        this.size = size;
+    }
+
+    public static RateMatrix of(String anchor, String date, Map<String, BigDecimal> anchorRates) {
+        double[] table = emptyTable();
+        int size = 0;
+
+        for (Map.Entry<String, BigDecimal> rate : anchorRates.entrySet()) {
+            int index = CurrencyCodes.index(rate.getKey());
+            if (index >= 0 && rate.getValue() != null && rate.getValue().signum() > 0) {
+                table[index] = rate.getValue().doubleValue();
+                size++;
+            }
+        }
+
+        int anchorIndex = CurrencyCodes.index(anchor);
+        if (anchorIndex >= 0 && Double.isNaN(table[anchorIndex])) {
+            table[anchorIndex] = 1.0;
+            size++;
+        }
+
+        return new RateMatrix(anchor, date, table, size);
+    }
+
+    public double rate(String baseCurrency, String targetCurrency) {
+        int base = CurrencyCodes.index(baseCurrency);
+        int target = CurrencyCodes.index(targetCurrency);
+
+        if (base < 0 || target < 0)
+            return Double.NaN;
+
+        return perAnchor[target] / perAnchor[base];
+    }
+
+    public BigDecimal convert(BigDecimal amount, String fromCurrency, String toCurrency) {
+        if (fromCurrency.equalsIgnoreCase(toCurrency))
+            return amount;
+
+        double rate = rate(fromCurrency, toCurrency);
+        return Double.isNaN(rate) ? null : amount.multiply(BigDecimal.valueOf(rate));
+    }
+
+    public boolean supports(String currency) {
+        int index = CurrencyCodes.index(currency);
+        return index >= 0 && !Double.isNaN(perAnchor[index]);
+    }
+
+    public void forEachRate(ObjDoubleConsumer<String> consumer) {
+        for (int index = 0; index < perAnchor.length; index++) {
+            if (!Double.isNaN(perAnchor[index]))
+                consumer.accept(CurrencyCodes.code(index), perAnchor[index]);
+        }
+    }
+
+    public String getAnchor() {
+        return anchor;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static double[] emptyTable() {
+        double[] table = new double[CurrencyCodes.SIZE];
+        Arrays.fill(table, Double.NaN);
+        return table;
+    }
+}
@@ -0,0 +1,69 @@
+package com.rbc.my_budget.etag;
+
+import com.rbc.my_budget.account.AccountsChangedEvent;
+import com.rbc.my_budget.currency.ExchangeRateCache;
+import com.rbc.my_budget.currency.ExchangeRateHistory;
+import com.rbc.my_budget.transaction.TransactionsChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version counters for the account and transaction read models, used as strong ETags.
+ * Counters move only after a write commits, and callers read the tag before querying, so a response
+ * can carry an older tag than its body but never a newer one.
+ * <p>
+ * Tags include the start time of this instance, so they do not repeat across restarts, and the
+ * latest recorded exchange rates date when amounts are converted, or the live rates generation while
+ * nothing is recorded yet. Building a tag reads only memory; it never waits on the rates provider or
+ * the database.
+ */
+@Component
+public class ResourceVersions {
+
+    private final ExchangeRateHistory exchangeRateHistory;
+    private final ExchangeRateCache exchangeRateCache;
+    private final String epoch;
+
+    private final AtomicLong accounts = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+
+    public ResourceVersions(ExchangeRateHistory exchangeRateHistory, ExchangeRateCache exchangeRateCache, Clock clock) {
+        this.exchangeRateHistory = exchangeRateHistory;
+        this.exchangeRateCache = exchangeRateCache;
+        this.epoch = Long.toString(clock.millis(), 36);
+    }
+
+    public String accountsTag(String currency) {
+        return tag("a", accounts.get(), currency);
+    }
+
+    public String transactionsTag(String currency) {
+        return tag("t", transactions.get(), currency);
+    }
+
+    // Transaction writes move account balances, so they invalidate both.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        transactions.incrementAndGet();
+        accounts.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        accounts.incrementAndGet();
+    }
+
+    private String tag(String resource, long version, String currency) {
+        StringBuilder tag = new StringBuilder("\"").append(resource).append('-').append(epoch).append('-').append(version);
+        if (currency != null)
+            tag.append('-').append(currency.toLowerCase(Locale.ROOT))
+                    .append('-').append(exchangeRateHistory.latestIndexedDate().map(LocalDate::toString)
+                            .orElseGet(() -> "live" + exchangeRateCache.generation()));
+        return tag.append('"').toString();
+    }
+}
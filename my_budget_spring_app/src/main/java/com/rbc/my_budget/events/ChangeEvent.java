@@ -0,0 +1,25 @@
+package com.rbc.my_budget.events;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rbc.my_budget.account.AccountView;
+import com.rbc.my_budget.transaction.TransactionView;
+
+import java.util.List;
+
+/**
+ * One entry of the change feed. {@code accounts} holds the current state of every account the change
+ * touched, and every account when {@code allAccounts} is set; {@code deletedAccounts} names touched
+ * accounts that no longer exist.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEvent(long seq,
+                          ChangeType type,
+                          TransactionView transaction,
+                          List<AccountView> accounts,
+                          List<String> deletedAccounts,
+                          Boolean allAccounts) {
+
+    static ChangeEvent reset(long seq) {
+        return new ChangeEvent(seq, ChangeType.RESET, null, null, null, null);
+    }
+}
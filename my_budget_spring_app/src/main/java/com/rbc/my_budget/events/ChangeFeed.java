@@ -0,0 +1,386 @@
+package com.rbc.my_budget.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbc.my_budget.account.AccountService;
+import com.rbc.my_budget.account.AccountView;
+import com.rbc.my_budget.account.AccountsChangedEvent;
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.currency.RateMatrix;
+import com.rbc.my_budget.exception.ChangeFeedFullException;
+import com.rbc.my_budget.transaction.TransactionView;
+import com.rbc.my_budget.transaction.TransactionsChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Server-Sent Events feed of committed account and transaction changes.
+ * <p>
+ * Events are numbered by a single dispatcher thread, so every subscriber sees them in the same order.
+ * Each carries the new state of the accounts it touched, read once after commit and converted once per
+ * subscribed currency. The last {@code replay-size} events are kept so clients reconnecting with
+ * {@code Last-Event-ID} can catch up; clients that fell further behind get a reset.
+ * <p>
+ * The dispatcher never writes to a socket. Each subscriber has an outbox of
+ * {@code subscriber-buffer-size} events and a sender task that runs only while the outbox has
+ * something in it, so a slow client holds up itself and nobody else. A client whose outbox fills up
+ * is disconnected and catches up when it reconnects. If the dispatcher itself falls
+ * {@code dispatch-queue-size} tasks behind, dropped changes are replaced by a reset.
+ * <p>
+ * Idle subscribers hold no thread, only an async request, and a periodic comment line lets the
+ * container notice clients that went away.
+ */
+@Component
+public class ChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private final AccountService accountService;
+    private final CurrencyService currencyService;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int replaySize;
+    private final int bufferSize;
+    private final String epoch;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Taken on the request thread and given back when the subscriber ends, so the cap holds under concurrent subscribes.
+    private final Semaphore slots;
+    private final ExecutorService dispatcher;
+    private final ExecutorService senders;
+    private final AtomicBoolean resetPending = new AtomicBoolean();
+    private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+
+    // Only touched on the dispatcher thread.
+    private final Deque<ChangeEvent> recent = new ArrayDeque<>();
+    private long seq;
+
+    public ChangeFeed(AccountService accountService, CurrencyService currencyService, ObjectMapper objectMapper,
+                      ChangeFeedProperties properties, Clock clock, Environment environment) {
+        this.accountService = accountService;
+        this.currencyService = currencyService;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = properties.timeout().toMillis();
+        this.replaySize = Math.max(0, properties.replaySize());
+        this.bufferSize = Math.max(1, properties.subscriberBufferSize());
+        this.epoch = Long.toString(clock.millis(), 36);
+        this.slots = new Semaphore(Math.max(1, properties.maxSubscribers()));
+
+        // The dispatcher blocks on account reads and senders on socket writes, so both follow spring.threads.virtual.enabled.
+        boolean virtual = Threading.VIRTUAL.isActive(environment);
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, properties.dispatchQueueSize())), thread(virtual).name("change-feed").factory());
+        ThreadFactory senderThreads = thread(virtual).name("change-feed-sender-", 0).factory();
+        this.senders = virtual ? Executors.newThreadPerTaskExecutor(senderThreads) : Executors.newCachedThreadPool(senderThreads);
+    }
+
+    public SseEmitter subscribe(String currency, String lastEventId) {
+
+        if (!slots.tryAcquire())
+            throw new ChangeFeedFullException();
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, currency);
+        try {
+            if (currency != null)
+                currencyService.getLatestRateMatrix(currency);
+        } catch (RuntimeException e) {
+            subscriber.release();
+            throw e;
+        }
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        if (!dispatch(() -> {
+            catchUp(subscriber, lastEventId);
+            subscribers.add(subscriber);
+            // The client may have gone before its catch-up ran; it must not linger in the set.
+            if (!subscriber.isOpen())
+                subscribers.remove(subscriber);
+        })) {
+            subscriber.release();
+            throw new ChangeFeedFullException();
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        ChangeType type = switch (event.change()) {
+            case CREATED -> ChangeType.TRANSACTION_CREATED;
+            case UPDATED -> ChangeType.TRANSACTION_UPDATED;
+            case DELETED -> ChangeType.TRANSACTION_DELETED;
+            case BULK -> ChangeType.TRANSACTIONS_CHANGED;
+        };
+        publishLater(() -> publish(type, event.transaction(), event.accountNames()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        publishLater(() -> publish(ChangeType.ACCOUNTS_CHANGED, null, event.accountName() == null ? null : Set.of(event.accountName())));
+    }
+
+    @Scheduled(fixedDelayString = "${events.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        // One heartbeat in the queue is enough, however far behind the dispatcher is.
+        if (!subscribers.isEmpty() && heartbeatPending.compareAndSet(false, true)
+                && !dispatch(() -> {
+                    heartbeatPending.set(false);
+                    subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("")));
+                }))
+            heartbeatPending.set(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void publishLater(Runnable publish) {
+        if (!dispatch(publish)) {
+            // The change is lost to the feed; the next task the dispatcher runs tells clients to reload.
+            logger.warn("Change feed dispatcher is full, subscribers will be reset");
+            resetPending.set(true);
+        }
+    }
+
+    private void publish(ChangeType type, TransactionView transaction, Set<String> accountNames) {
+
+        ChangeEvent event;
+        try {
+            event = change(++seq, type, transaction, accountNames);
+        } catch (RuntimeException e) {
+            // Without the new balances the delta is useless; tell clients to reload instead.
+            logger.warn("Could not read accounts for change feed event {}", seq, e);
+            event = ChangeEvent.reset(seq);
+        }
+        publish(event);
+    }
+
+    private void publish(ChangeEvent event) {
+
+        recent.addLast(event);
+        while (recent.size() > replaySize)
+            recent.removeFirst();
+
+        // Serialised once per currency, however many subscribers share it.
+        ChangeEvent published = event;
+        Map<String, String> json = new HashMap<>();
+        for (Subscriber subscriber : subscribers)
+            subscriber.offer(event(published, json.computeIfAbsent(Objects.toString(subscriber.currency, ""),
+                    key -> toJson(convert(published, subscriber.currency)))));
+    }
+
+    private ChangeEvent change(long seq, ChangeType type, TransactionView transaction, Set<String> accountNames) {
+
+        if (accountNames == null)
+            return new ChangeEvent(seq, type, transaction, accountService.getAllAccounts(), null, Boolean.TRUE);
+
+        List<AccountView> accounts = accountService.getAccounts(accountNames);
+        Set<String> found = accounts.stream().map(AccountView::name).collect(Collectors.toSet());
+        List<String> deleted = accountNames.stream().filter(name -> !found.contains(name)).sorted().toList();
+        return new ChangeEvent(seq, type, transaction, accounts, deleted.isEmpty() ? null : deleted, null);
+    }
+
+    private void catchUp(Subscriber subscriber, String lastEventId) {
+
+        // More missed events than the outbox holds would only get the subscriber dropped again.
+        Long last = parseEventId(lastEventId);
+        if (last == null || last > seq || last < seq - recent.size() || seq - last > bufferSize) {
+            ChangeEvent reset = ChangeEvent.reset(seq);
+            subscriber.offer(event(reset, toJson(reset)));
+            return;
+        }
+        for (ChangeEvent event : recent)
+            if (event.seq() > last)
+                subscriber.offer(event(event, toJson(convert(event, subscriber.currency))));
+    }
+
+    // Ids from before a restart carry another epoch and never match.
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(epoch + "-"))
+            return null;
+        try {
+            return Long.parseLong(lastEventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private ChangeEvent convert(ChangeEvent event, String currency) {
+
+        if (currency == null || event.type() == ChangeType.RESET)
+            return event;
+
+        RateMatrix rates = currencyService.getLatestRateMatrix(currency);
+        TransactionView transaction = event.transaction() == null ? null
+                : event.transaction().withAmountInDefaultCurrency(round(rates.convert(event.transaction().amount(), event.transaction().currency(), currency)));
+        List<AccountView> accounts = event.accounts() == null ? null : event.accounts().stream()
+                .map(account -> account.withBalanceInDefaultCurrency(round(rates.convert(account.balance(), account.currency(), currency))))
+                .toList();
+        return new ChangeEvent(event.seq(), event.type(), transaction, accounts, event.deletedAccounts(), event.allAccounts());
+    }
+
+    private SseEmitter.SseEventBuilder event(ChangeEvent event, String json) {
+        return SseEmitter.event()
+                .id(epoch + "-" + event.seq())
+                .name(event.type().eventName())
+                .data(json, MediaType.APPLICATION_JSON);
+    }
+
+    private String toJson(ChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise change feed event " + event.seq(), e);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.release();
+    }
+
+    private boolean dispatch(Runnable task) {
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    if (resetPending.getAndSet(false))
+                        publish(ChangeEvent.reset(++seq));
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.warn("Change feed dispatch failed", e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (dispatcher.isShutdown())
+                logger.debug("Change feed is shut down, dropping event");
+            return false;
+        }
+    }
+
+    private static BigDecimal round(BigDecimal amount) {
+        return amount == null ? null : amount.setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private static Thread.Builder thread(boolean virtual) {
+        return virtual ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+    }
+
+    /**
+     * One connected client. The dispatcher only offers to the outbox; a sender task drains it and is
+     * the only thread that writes to this client's socket.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String currency;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> outbox = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean closing;
+
+        private Subscriber(SseEmitter emitter, String currency) {
+            this.emitter = emitter;
+            this.currency = currency;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closing)
+                return;
+            if (!outbox.offer(event)) {
+                logger.info("Change feed subscriber fell {} events behind, disconnecting it", bufferSize);
+                close();
+            }
+            schedule();
+        }
+
+        private void close() {
+            closing = true;
+            outbox.clear();
+            unsubscribe(this);
+        }
+
+        private void schedule() {
+            if (!sending.compareAndSet(false, true))
+                return;
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                sending.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closing && (event = outbox.poll()) != null)
+                    emitter.send(event);
+                // Completed here rather than by the dispatcher: completing waits for a send in progress.
+                if (closing && completed.compareAndSet(false, true))
+                    emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the container completes the emitter.
+                completed.set(true);
+                close();
+            } finally {
+                sending.set(false);
+            }
+            // Anything offered after the last poll but before the flag was cleared still needs a sender.
+            if (closing ? !completed.get() : !outbox.isEmpty())
+                schedule();
+        }
+
+        private boolean isOpen() {
+            return !closing && !released.get();
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true))
+                slots.release();
+        }
+    }
+}
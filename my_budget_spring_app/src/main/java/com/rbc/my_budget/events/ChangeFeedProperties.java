@@ -0,0 +1,15 @@
+package com.rbc.my_budget.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "events")
+public record ChangeFeedProperties(@DefaultValue("30m") Duration timeout,
+                                   @DefaultValue("25s") Duration heartbeatInterval,
+                                   @DefaultValue("1000") int maxSubscribers,
+                                   @DefaultValue("1000") int replaySize,
+                                   @DefaultValue("256") int subscriberBufferSize,
+                                   @DefaultValue("10000") int dispatchQueueSize) {
+}
@@ -0,0 +1,19 @@
+package com.rbc.my_budget.events;
+
+import java.util.Locale;
+
+public enum ChangeType {
+
+    TRANSACTION_CREATED,
+    TRANSACTION_UPDATED,
+    TRANSACTION_DELETED,
+    // Several transactions changed at once; clients reload their transaction lists.
+    TRANSACTIONS_CHANGED,
+    ACCOUNTS_CHANGED,
+    // The client missed events, or has just connected; it reloads everything and applies deltas from here.
+    RESET;
+
+    public String eventName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
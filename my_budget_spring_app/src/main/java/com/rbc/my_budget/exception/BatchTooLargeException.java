@@ -0,0 +1,8 @@
+package com.rbc.my_budget.exception;
+
+public class BatchTooLargeException extends RuntimeException{
+
+    public BatchTooLargeException(int size, int maxSize) {
+        super(String.format("Batch of %d items exceeds the limit of %d.", size, maxSize));
+    }
+}
@@ -0,0 +1,8 @@
+package com.rbc.my_budget.exception;
+
+public class ChangeFeedFullException extends RuntimeException{
+
+    public ChangeFeedFullException() {
+        super("Too many clients are subscribed to the change feed, try again shortly.");
+    }
+}
@@ -0,0 +1,12 @@
+package com.rbc.my_budget.exception;
+
+public class ExchangeRateUnavailableException extends RuntimeException{
+
+    public ExchangeRateUnavailableException(String currency) {
+        super("Exchange rates for " + currency.toUpperCase() + " are currently unavailable.");
+    }
+
+    public ExchangeRateUnavailableException(String currency, Throwable cause) {
+        super("Exchange rates for " + currency.toUpperCase() + " are currently unavailable.", cause);
+    }
+}
@@ -0,0 +1,8 @@
+package com.rbc.my_budget.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException{
+
+    public IdempotencyKeyInProgressException(String key) {
+        super("A request with idempotency key " + key + " is still being processed, try again shortly.");
+    }
+}
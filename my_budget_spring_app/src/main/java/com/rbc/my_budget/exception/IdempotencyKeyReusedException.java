@@ -0,0 +1,8 @@
+package com.rbc.my_budget.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException{
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency key " + key + " was already used for a different request.");
+    }
+}
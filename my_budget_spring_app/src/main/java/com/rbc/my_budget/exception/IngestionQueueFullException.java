@@ -0,0 +1,8 @@
+package com.rbc.my_budget.exception;
+
+public class IngestionQueueFullException extends RuntimeException{
+
+    public IngestionQueueFullException() {
+        super("Too many transactions waiting to be written, try again shortly.");
+    }
+}
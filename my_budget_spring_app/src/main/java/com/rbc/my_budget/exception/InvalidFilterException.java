@@ -0,0 +1,8 @@
+package com.rbc.my_budget.exception;
+
+public class InvalidFilterException extends RuntimeException{
+
+    public InvalidFilterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.rbc.my_budget.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException{
+
+    public InvalidIdempotencyKeyException() {
+        super("Idempotency key must be between 1 and 255 characters.");
+    }
+}
@@ -0,0 +1,8 @@
+package com.rbc.my_budget.exception;
+
+public class UnsupportedCurrencyException extends RuntimeException{
+
+    public UnsupportedCurrencyException(String currency) {
+        super("No exchange rates available for currency " + currency + ".");
+    }
+}
@@ -0,0 +1,12 @@
+package com.rbc.my_budget.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "idempotency")
+public record IdempotencyProperties(@DefaultValue("24h") Duration ttl,
+                                    @DefaultValue("10000") int maxEntries,
+                                    @DefaultValue("30s") Duration waitTimeout) {
+}
@@ -0,0 +1,180 @@
+package com.rbc.my_budget.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbc.my_budget.exception.IdempotencyKeyInProgressException;
+import com.rbc.my_budget.exception.IdempotencyKeyReusedException;
+import com.rbc.my_budget.exception.InvalidIdempotencyKeyException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the responses of writes sent with an {@code Idempotency-Key} header, so a client retrying
+ * after a timeout gets the original response instead of applying the write a second time.
+ * <p>
+ * A repeat that arrives while the first request is still running waits for its result. Keys expire after
+ * the configured TTL and the store holds at most {@code max-entries} completed responses, dropping the
+ * oldest first. Requests that fail are forgotten, so the client can retry them with the same key.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final int maxEntries;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    // Insertion order is creation order, so expired and excess entries are always found at the head.
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(IdempotencyProperties properties, ObjectMapper objectMapper, Clock clock) {
+        this.ttl = properties.ttl();
+        this.waitTimeout = properties.waitTimeout();
+        this.maxEntries = Math.max(1, properties.maxEntries());
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs {@code action} once per key. {@code operation} and {@code request} identify what the key was
+     * first used for; repeating the key for anything else is rejected.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request, Supplier<ResponseEntity<T>> action) {
+
+        if (key == null)
+            return action.get();
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH)
+            throw new InvalidIdempotencyKeyException();
+
+        Instant now = clock.instant();
+        Entry claimed = new Entry(operation, fingerprint(request), now);
+        Entry entry = claim(key, claimed, now);
+
+        if (entry != claimed) {
+            if (!entry.matches(claimed))
+                throw new IdempotencyKeyReusedException(key);
+            return (ResponseEntity<T>) replay(await(key, entry));
+        }
+
+        try {
+            ResponseEntity<T> response = action.get();
+            claimed.result.complete(response);
+            return response;
+        } catch (Throwable e) {
+            // Errors included: a claim left open would hold up every repeat until the wait timeout.
+            forget(key, claimed);
+            claimed.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized Entry claim(String key, Entry claimed, Instant now) {
+
+        Entry existing = entries.get(key);
+        if (existing != null && !existing.isExpired(now, ttl))
+            return existing;
+
+        // Removed first so a reused key moves to the tail instead of keeping its old position.
+        entries.remove(key);
+        entries.put(key, claimed);
+        evict(now);
+        return claimed;
+    }
+
+    private synchronized void forget(String key, Entry claimed) {
+        entries.remove(key, claimed);
+    }
+
+    private void evict(Instant now) {
+
+        // Requests still running are skipped; their repeats must keep finding them. There are only
+        // as many of those as requests in flight, so this stops after a handful of entries.
+        Iterator<Entry> oldestFirst = entries.values().iterator();
+        while (oldestFirst.hasNext()) {
+            Entry entry = oldestFirst.next();
+            if (!entry.result.isDone())
+                continue;
+            if (!entry.isExpired(now, ttl) && entries.size() <= maxEntries)
+                return;
+            oldestFirst.remove();
+        }
+    }
+
+    private ResponseEntity<?> await(String key, Entry entry) {
+        try {
+            return entry.result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(key);
+        }
+    }
+
+    private static ResponseEntity<?> replay(ResponseEntity<?> original) {
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final String operation;
+        private final byte[] fingerprint;
+        private final Instant createdAt;
+        private final CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+
+        private Entry(String operation, byte[] fingerprint, Instant createdAt) {
+            this.operation = operation;
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+
+        private boolean isExpired(Instant now, Duration ttl) {
+            return result.isDone() && !now.isBefore(createdAt.plus(ttl));
+        }
+
+        private boolean matches(Entry other) {
+            return operation.equals(other.operation) && Arrays.equals(fingerprint, other.fingerprint);
+        }
+    }
+}
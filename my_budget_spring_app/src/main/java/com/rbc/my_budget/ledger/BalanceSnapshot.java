@@ -0,0 +1,43 @@
+package com.rbc.my_budget.ledger;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "balance_snapshot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshot_account_entry", columnNames = {"account_name", "last_entry_id"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_name", nullable = false)
+    private String accountName;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "taken_at", nullable = false)
+    private Instant takenAt;
+
+    public BalanceSnapshot(String accountName, Long lastEntryId, BigDecimal balance, Instant takenAt) {
+        this.accountName = accountName;
+        this.lastEntryId = lastEntryId;
+        this.balance = balance;
+        this.takenAt = takenAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.rbc.my_budget.ledger;
+
+import java.math.BigDecimal;
+
+public record LedgerBalance(String accountName,
+                            BigDecimal balance,
+                            BigDecimal accountBalance,
+                            boolean consistent,
+                            Long snapshotEntryId,
+                            long tailEntries) {
+}
@@ -0,0 +1,21 @@
+package com.rbc.my_budget.ledger;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/ledger")
+@RequiredArgsConstructor
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+
+    @GetMapping(path = "{accountName}")
+    public ResponseEntity<LedgerBalance> getLedgerBalance(@PathVariable("accountName") String accountName) {
+        return ResponseEntity.ok(ledgerService.getBalance(accountName));
+    }
+}
@@ -0,0 +1,48 @@
+package com.rbc.my_budget.ledger;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "ledger_entry",
+        indexes = @Index(name = "idx_ledger_entry_account_name_id", columnList = "account_name, id"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_name", nullable = false)
+    private String accountName;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private LedgerEventType type;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal delta;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+
+    public LedgerEntry(String accountName, LedgerEventType type, Long transactionId, BigDecimal delta, Instant recordedAt) {
+        this.accountName = accountName;
+        this.type = type;
+        this.transactionId = transactionId;
+        this.delta = delta;
+        this.recordedAt = recordedAt;
+    }
+}
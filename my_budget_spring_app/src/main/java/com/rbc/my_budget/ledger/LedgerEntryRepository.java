@@ -0,0 +1,23 @@
+package com.rbc.my_budget.ledger;
+
+import com.rbc.my_budget.account.Account;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    @Query("select new com.rbc.my_budget.ledger.LedgerTail(coalesce(sum(e.delta), 0), count(e), max(e.id)) " +
+            "from LedgerEntry e where e.accountName = :accountName and e.id > :afterId")
+    LedgerTail sumAfter(@Param("accountName") String accountName, @Param("afterId") long afterId);
+
+    @Query("select distinct e.accountName from LedgerEntry e")
+    List<String> findAccountNames();
+
+    @Query("select a from Account a where not exists (select e.id from LedgerEntry e where e.accountName = a.name)")
+    List<Account> findAccountsWithoutEntries();
+}
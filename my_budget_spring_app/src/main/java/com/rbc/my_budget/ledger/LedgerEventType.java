@@ -0,0 +1,11 @@
+package com.rbc.my_budget.ledger;
+
+public enum LedgerEventType {
+    OPENING,
+    IMPORT,
+    CREATE,
+    EDIT,
+    DELETE,
+    ADJUSTMENT,
+    CLOSING
+}
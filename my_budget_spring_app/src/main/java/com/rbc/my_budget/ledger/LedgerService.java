@@ -0,0 +1,139 @@
+package com.rbc.my_budget.ledger;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.exception.NotFoundException;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only journal of every change to an account balance. The balance column on
+ * {@link Account} stays as the fast read model; the journal is the record it can be rebuilt and
+ * checked against. Periodic snapshots keep that check to the last snapshot plus a short tail.
+ * <p>
+ * Writers keep updating the column alongside the insert. The append needs the account row lock
+ * anyway (see below), so dropping the update would not take the row out of the write path, while
+ * list and summary reads would turn from one query into a snapshot-plus-tail sum per account.
+ * <p>
+ * Entry ids come from an identity column, so a lower id can commit after a higher one. Writers
+ * therefore take the account row lock (by inserting, updating or deleting the row) before they
+ * append, and a snapshot is cut under the same lock, so no entry can commit below its cut later.
+ */
+@Service
+public class LedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerService.class);
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionOperations transactionOperations;
+    private final Clock clock;
+    private final int snapshotAfterEntries;
+
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository,
+                         BalanceSnapshotRepository balanceSnapshotRepository,
+                         AccountRepository accountRepository,
+                         TransactionOperations transactionOperations,
+                         Clock clock,
+                         @Value("${ledger.snapshot-after-entries:100}") int snapshotAfterEntries) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.accountRepository = accountRepository;
+        this.transactionOperations = transactionOperations;
+        this.clock = clock;
+        this.snapshotAfterEntries = Math.max(1, snapshotAfterEntries);
+    }
+
+    // Callers must already hold the account row lock; see the class comment.
+    public void record(String accountName, LedgerEventType type, Long transactionId, BigDecimal delta) {
+        ledgerEntryRepository.save(new LedgerEntry(accountName, type, transactionId, round(delta), clock.instant()));
+    }
+
+    public void recordAll(Map<String, BigDecimal> deltas, LedgerEventType type) {
+        Instant now = clock.instant();
+        ledgerEntryRepository.saveAll(deltas.entrySet().stream()
+                .map(delta -> new LedgerEntry(delta.getKey(), type, null, round(delta.getValue()), now))
+                .toList());
+    }
+
+    // Writers append under the account row lock, so holding it makes the snapshot, the tail and the
+    // column one reading at any isolation level; a write in between would report a false mismatch.
+    @Transactional
+    public LedgerBalance getBalance(String accountName) {
+
+        Account account = accountRepository.lockByName(accountName)
+                .orElseThrow(() -> new NotFoundException(Account.class, accountName));
+
+        BalanceSnapshot snapshot = balanceSnapshotRepository.findFirstByAccountNameOrderByLastEntryIdDesc(accountName).orElse(null);
+        long afterId = snapshot == null ? 0 : snapshot.getLastEntryId();
+        LedgerTail tail = ledgerEntryRepository.sumAfter(accountName, afterId);
+
+        BigDecimal balance = (snapshot == null ? BigDecimal.ZERO : snapshot.getBalance()).add(tail.total());
+
+        return new LedgerBalance(accountName, balance, account.getBalance(),
+                balance.compareTo(account.getBalance()) == 0,
+                snapshot == null ? null : snapshot.getLastEntryId(), tail.entries());
+    }
+
+    public void snapshot(String accountName) {
+        transactionOperations.executeWithoutResult(status -> {
+            // A closed account takes no further entries and its journal is never read back.
+            if (accountRepository.lockByName(accountName).isEmpty())
+                return;
+
+            BalanceSnapshot previous = balanceSnapshotRepository.findFirstByAccountNameOrderByLastEntryIdDesc(accountName).orElse(null);
+            LedgerTail tail = ledgerEntryRepository.sumAfter(accountName, previous == null ? 0 : previous.getLastEntryId());
+
+            if (tail.entries() < snapshotAfterEntries)
+                return;
+
+            BigDecimal balance = (previous == null ? BigDecimal.ZERO : previous.getBalance()).add(tail.total());
+            balanceSnapshotRepository.save(new BalanceSnapshot(accountName, tail.lastEntryId(), balance, clock.instant()));
+        });
+    }
+
+    @Scheduled(cron = "${ledger.snapshot-cron:0 0 * * * *}", zone = "UTC")
+    public void snapshotAll() {
+        for (String accountName : ledgerEntryRepository.findAccountNames()) {
+            try {
+                snapshot(accountName);
+            } catch (RuntimeException e) {
+                logger.warn("Could not snapshot ledger for account {}", accountName, e);
+            }
+        }
+    }
+
+    // Accounts that existed before the journal did start it with their current balance.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recordOpeningBalances() {
+        List<Account> accounts = ledgerEntryRepository.findAccountsWithoutEntries();
+        for (Account account : accounts) {
+            accountRepository.lockByName(account.getName());
+            record(account.getName(), LedgerEventType.OPENING, null, account.getBalance());
+        }
+
+        if (!accounts.isEmpty())
+            logger.info("Recorded opening ledger balances for {} accounts", accounts.size());
+    }
+
+    private static BigDecimal round(BigDecimal delta) {
+        // Same rounding the balance column applies, so journal and balance agree to the cent.
+        return delta.setScale(2, RoundingMode.HALF_UP);
+    }
+}
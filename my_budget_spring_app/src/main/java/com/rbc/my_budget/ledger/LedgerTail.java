@@ -0,0 +1,6 @@
+package com.rbc.my_budget.ledger;
+
+import java.math.BigDecimal;
+
+public record LedgerTail(BigDecimal total, long entries, Long lastEntryId) {
+}
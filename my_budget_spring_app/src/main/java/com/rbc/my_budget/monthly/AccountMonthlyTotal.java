@@ -0,0 +1,9 @@
+package com.rbc.my_budget.monthly;
+
+import com.rbc.my_budget.transaction.Type;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+public record AccountMonthlyTotal(String accountName, YearMonth month, Type type, BigDecimal total, long entries, String currency) {
+}
@@ -0,0 +1,12 @@
+package com.rbc.my_budget.monthly;
+
+import com.rbc.my_budget.transaction.Type;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * The columns of one transaction the monthly totals are built from, read when rebuilding them.
+ */
+public record BookedAmount(String accountName, Instant bookedAt, Type type, String currency, BigDecimal amount) {
+}
@@ -0,0 +1,54 @@
+package com.rbc.my_budget.monthly;
+
+import com.rbc.my_budget.transaction.Type;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "account_monthly_totals",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_monthly_totals_key",
+                columnNames = {"account_name", "month_start", "type", "currency"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class MonthlyTotal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_name", nullable = false)
+    private String accountName;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    @Column(nullable = false)
+    private String currency;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private long entries;
+
+    public MonthlyTotal(String accountName, LocalDate monthStart, Type type, String currency, BigDecimal total, long entries) {
+        this.accountName = accountName;
+        this.monthStart = monthStart;
+        this.type = type;
+        this.currency = currency;
+        this.total = total;
+        this.entries = entries;
+    }
+}
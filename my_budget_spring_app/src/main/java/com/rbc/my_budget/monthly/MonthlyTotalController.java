@@ -0,0 +1,30 @@
+package com.rbc.my_budget.monthly;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/monthly-totals")
+@RequiredArgsConstructor
+public class MonthlyTotalController {
+
+    private final MonthlyTotalService monthlyTotalService;
+
+    @GetMapping
+    public ResponseEntity<List<AccountMonthlyTotal>> getMonthlyTotals(@RequestParam(name = "account", required = false) String accountName,
+                                                                      @RequestParam(name = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                                                      @RequestParam(name = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+                                                                      @RequestParam(name = "currency", defaultValue = "EUR") String currency) {
+        return ResponseEntity.ok(monthlyTotalService.getMonthlyTotals(accountName, from, to, currency));
+    }
+
+    @PostMapping(path = "/rebuild")
+    public ResponseEntity<Integer> rebuild() {
+        return ResponseEntity.ok(monthlyTotalService.rebuild());
+    }
+}
@@ -0,0 +1,50 @@
+package com.rbc.my_budget.monthly;
+
+import com.rbc.my_budget.transaction.Type;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface MonthlyTotalRepository extends JpaRepository<MonthlyTotal, Long> {
+
+    @Modifying
+    @Query("update MonthlyTotal m set m.total = m.total + cast(:amount as BigDecimal(38, 2)), m.entries = m.entries + :entries " +
+            "where m.accountName = :accountName and m.monthStart = :monthStart and m.type = :type and m.currency = :currency")
+    int increment(@Param("accountName") String accountName, @Param("monthStart") LocalDate monthStart, @Param("type") Type type,
+                  @Param("currency") String currency, @Param("amount") BigDecimal amount, @Param("entries") long entries);
+
+    @Modifying
+    @Query("delete from MonthlyTotal m where m.accountName = :accountName and m.monthStart = :monthStart " +
+            "and m.type = :type and m.currency = :currency and m.entries <= 0")
+    int deleteIfEmpty(@Param("accountName") String accountName, @Param("monthStart") LocalDate monthStart,
+                      @Param("type") Type type, @Param("currency") String currency);
+
+    @Modifying
+    @Query("delete from MonthlyTotal m where m.accountName in :accountNames and (:type is null or m.type = :type)")
+    int deleteMatching(@Param("accountNames") Collection<String> accountNames, @Param("type") Type type);
+
+    @Query("select m from MonthlyTotal m where (:accountName is null or m.accountName = :accountName) " +
+            "and m.monthStart >= :from and m.monthStart <= :to order by m.monthStart, m.accountName, m.type")
+    List<MonthlyTotal> findInRange(@Param("accountName") String accountName, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Months are cut in Java, in UTC like the write path; SQL year()/month() would follow the database time zone.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.rbc.my_budget.monthly.BookedAmount(t.account.name, t.bookedAt, t.type, t.currency, t.amount) " +
+            "from Transaction t")
+    Stream<BookedAmount> streamBookedAmounts();
+}
@@ -0,0 +1,158 @@
+package com.rbc.my_budget.monthly;
+
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.currency.RateMatrix;
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import com.rbc.my_budget.exception.InvalidFilterException;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.Type;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Per account, month, type and currency running totals of the transaction table, kept up to date
+ * by the transaction write paths in the same database transaction. Callers update the account
+ * balance first, so the account row lock already serialises concurrent writers to a bucket.
+ * <p>
+ * Totals are kept in the transaction currency, so they stay exact and {@link #rebuild()} needs no
+ * exchange rates; conversion into the reporting currency happens on read.
+ */
+@Service
+@RequiredArgsConstructor
+public class MonthlyTotalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyTotalService.class);
+
+    private static final Comparator<Bucket> BUCKET_ORDER = Comparator.comparing(Bucket::accountName)
+            .thenComparing(Bucket::monthStart)
+            .thenComparing(Bucket::type)
+            .thenComparing(Bucket::currency);
+
+    private final MonthlyTotalRepository monthlyTotalRepository;
+    private final CurrencyService currencyService;
+    private final Clock clock;
+
+    public void add(Transaction transaction) {
+        apply(Bucket.of(transaction), transaction.getAmount(), 1);
+    }
+
+    public void remove(Transaction transaction) {
+        apply(Bucket.of(transaction), transaction.getAmount().negate(), -1);
+    }
+
+    public void addAll(Collection<Transaction> transactions) {
+
+        Map<Bucket, Sum> sums = new TreeMap<>(BUCKET_ORDER);
+        for (Transaction transaction : transactions)
+            sums.merge(Bucket.of(transaction), new Sum(transaction.getAmount(), 1), Sum::plus);
+
+        sums.forEach((bucket, sum) -> apply(bucket, sum.total(), sum.entries()));
+    }
+
+    public void removeMatching(Collection<String> accountNames, Type type) {
+        monthlyTotalRepository.deleteMatching(accountNames, type);
+    }
+
+    @Transactional
+    public int rebuild() {
+
+        monthlyTotalRepository.deleteAllInBatch();
+
+        // Bucketed with the same UTC month as the write path, one streamed row at a time.
+        Map<Bucket, Sum> sums = new TreeMap<>(BUCKET_ORDER);
+        try (Stream<BookedAmount> rows = monthlyTotalRepository.streamBookedAmounts()) {
+            rows.forEach(row -> sums.merge(Bucket.of(row.accountName(), row.bookedAt(), row.type(), row.currency()),
+                    new Sum(row.amount(), 1), Sum::plus));
+        }
+
+        List<MonthlyTotal> totals = sums.entrySet().stream()
+                .map(entry -> new MonthlyTotal(entry.getKey().accountName(), entry.getKey().monthStart(), entry.getKey().type(),
+                        entry.getKey().currency(), entry.getValue().total(), entry.getValue().entries()))
+                .toList();
+        monthlyTotalRepository.saveAll(totals);
+
+        logger.info("Rebuilt {} monthly totals", totals.size());
+        return totals.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountMonthlyTotal> getMonthlyTotals(String accountName, YearMonth from, YearMonth to, String currency) {
+
+        YearMonth last = to == null ? YearMonth.now(clock) : to;
+        YearMonth first = from == null ? last.minusMonths(11) : from;
+        if (first.isAfter(last))
+            throw new InvalidFilterException("Month range start cannot be after its end.");
+
+        RateMatrix rates = currencyService.getLatestRateMatrix(currency);
+        String reportingCurrency = currency.toUpperCase();
+
+        // Buckets in different transaction currencies collapse into one row per account, month and type.
+        Map<Bucket, Sum> converted = new LinkedHashMap<>();
+        for (MonthlyTotal total : monthlyTotalRepository.findInRange(accountName, first.atDay(1), last.atDay(1))) {
+            BigDecimal amount = rates.convert(total.getTotal(), total.getCurrency(), currency);
+            if (amount == null)
+                throw new ExchangeRateUnavailableException(total.getCurrency());
+
+            Bucket bucket = new Bucket(total.getAccountName(), total.getMonthStart(), total.getType(), reportingCurrency);
+            converted.merge(bucket, new Sum(amount, total.getEntries()), Sum::plus);
+        }
+
+        return converted.entrySet().stream()
+                .map(entry -> new AccountMonthlyTotal(entry.getKey().accountName(), YearMonth.from(entry.getKey().monthStart()),
+                        entry.getKey().type(), entry.getValue().total().setScale(2, RoundingMode.HALF_EVEN),
+                        entry.getValue().entries(), reportingCurrency))
+                .toList();
+    }
+
+    private void apply(Bucket bucket, BigDecimal amount, long entries) {
+
+        int updated = monthlyTotalRepository.increment(bucket.accountName(), bucket.monthStart(), bucket.type(),
+                bucket.currency(), amount, entries);
+
+        if (entries < 0) {
+            // Nothing to take away from means the totals predate this table; a rebuild brings them back in line.
+            if (updated == 0)
+                logger.warn("No monthly total for {} to remove from; run a rebuild", bucket);
+            monthlyTotalRepository.deleteIfEmpty(bucket.accountName(), bucket.monthStart(), bucket.type(), bucket.currency());
+        } else if (updated == 0) {
+            monthlyTotalRepository.save(new MonthlyTotal(bucket.accountName(), bucket.monthStart(), bucket.type(),
+                    bucket.currency(), amount, entries));
+        }
+    }
+
+    private record Bucket(String accountName, LocalDate monthStart, Type type, String currency) {
+
+        static Bucket of(Transaction transaction) {
+            return of(transaction.getAccount().getName(), transaction.getBookedAt(), transaction.getType(), transaction.getCurrency());
+        }
+
+        static Bucket of(String accountName, Instant bookedAt, Type type, String currency) {
+            return new Bucket(accountName, LocalDate.ofInstant(bookedAt, ZoneOffset.UTC).withDayOfMonth(1), type, currency);
+        }
+    }
+
+    private record Sum(BigDecimal total, long entries) {
+
+        Sum plus(Sum other) {
+            return new Sum(total.add(other.total), entries + other.entries);
+        }
+    }
+}
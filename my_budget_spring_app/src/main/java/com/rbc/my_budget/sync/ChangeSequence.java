@@ -0,0 +1,81 @@
+package com.rbc.my_budget.sync;
+
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.transaction.TransactionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Hands out the change sequence stamped on account and transaction rows and on tombstones.
+ * <p>
+ * Numbers are taken when a change is written, not when it commits, so a lower number can become
+ * visible after a higher one. {@link #watermark()} stays below every number whose transaction is
+ * still open; readers that stop there never step past a row that has yet to commit. The counter
+ * lives in this process and is seeded from the highest number stored, so only one instance may write.
+ */
+@Component
+public class ChangeSequence {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TombstoneRepository tombstoneRepository;
+
+    private final SortedSet<Long> inFlight = new TreeSet<>();
+    private long last = -1;
+
+    public ChangeSequence(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                          TombstoneRepository tombstoneRepository) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    /**
+     * Next number, held back from the watermark until the current transaction completes.
+     */
+    public synchronized long next() {
+        seed();
+        long seq = ++last;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlight.add(seq);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    complete(seq);
+                }
+            });
+        }
+        return seq;
+    }
+
+    /**
+     * Highest number at or below which every change has committed or rolled back.
+     */
+    public synchronized long watermark() {
+        seed();
+        return inFlight.isEmpty() ? last : inFlight.first() - 1;
+    }
+
+    private synchronized void complete(long seq) {
+        inFlight.remove(seq);
+    }
+
+    private void seed() {
+        if (last >= 0)
+            return;
+
+        last = Stream.of(accountRepository.findMaxChangeSeq(), transactionRepository.findMaxChangeSeq(),
+                        tombstoneRepository.findMaxChangeSeq())
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0);
+    }
+}
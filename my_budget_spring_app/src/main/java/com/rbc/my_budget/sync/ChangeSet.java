@@ -0,0 +1,10 @@
+package com.rbc.my_budget.sync;
+
+import java.util.List;
+
+/**
+ * One page of changes after a sync cursor: rows to upsert, keys to delete, and the cursor to ask
+ * from next. With {@code hasMore} false the client is up to date as of {@code cursor}.
+ */
+public record ChangeSet<T, K>(List<T> changed, List<K> deleted, String cursor, boolean hasMore) {
+}
@@ -0,0 +1,87 @@
+package com.rbc.my_budget.sync;
+
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.account.AccountsChangedEvent;
+import com.rbc.my_budget.transaction.TransactionRepository;
+import com.rbc.my_budget.transaction.TransactionsChangedEvent;
+import com.rbc.my_budget.transaction.Type;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.Set;
+
+/**
+ * Keeps the change sequence on account and transaction rows current. Rows are stamped from the
+ * change events the write paths already publish, inside the writing transaction; deletes leave a
+ * tombstone instead. Bulk deletes name no rows in their events, so those write paths call
+ * {@link #transactionsDeleted} and {@link #accountsDeleted} before deleting.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeTracker.class);
+
+    private final ChangeSequence changeSequence;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final Clock clock;
+
+    @EventListener
+    @Transactional
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+
+        long seq = changeSequence.next();
+        if (event.accountNames() == null)
+            accountRepository.stampAllChangeSeq(seq);
+        else if (!event.accountNames().isEmpty())
+            accountRepository.stampChangeSeq(event.accountNames(), seq);
+
+        switch (event.change()) {
+            case CREATED, UPDATED -> transactionRepository.stampChangeSeq(event.transaction().id(), seq);
+            case DELETED -> tombstoneRepository.save(new Tombstone(Tombstone.Kind.TRANSACTION,
+                    event.transaction().id().toString(), seq, clock.instant()));
+            // Batch inserts carry their sequence in the insert; bulk deletes call transactionsDeleted.
+            case BULK -> { }
+        }
+    }
+
+    @EventListener
+    @Transactional
+    public void onAccountsChanged(AccountsChangedEvent event) {
+
+        long seq = changeSequence.next();
+        if (event.accountName() == null)
+            accountRepository.stampAllChangeSeq(seq);
+        else if (accountRepository.stampChangeSeq(Set.of(event.accountName()), seq) == 0)
+            tombstoneRepository.save(new Tombstone(Tombstone.Kind.ACCOUNT, event.accountName(), seq, clock.instant()));
+    }
+
+    @Transactional
+    public void transactionsDeleted(String accountName, Type type) {
+        tombstoneRepository.insertForTransactions(Tombstone.Kind.TRANSACTION, accountName, type, changeSequence.next(), clock.instant());
+    }
+
+    @Transactional
+    public void accountsDeleted() {
+        tombstoneRepository.insertForAccounts(Tombstone.Kind.ACCOUNT, changeSequence.next(), clock.instant());
+    }
+
+    // Rows written before tracking existed, or by the XML import, join the sequence here.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void stampUntracked() {
+        long seq = changeSequence.next();
+        int rows = accountRepository.stampUntracked(seq) + transactionRepository.stampUntracked(seq);
+
+        if (rows > 0)
+            logger.info("Stamped {} untracked rows with change sequence {}", rows, seq);
+    }
+}
@@ -0,0 +1,30 @@
+package com.rbc.my_budget.sync;
+
+import com.rbc.my_budget.account.AccountView;
+import com.rbc.my_budget.transaction.TransactionView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping(path = "/transactions/changes")
+    public ResponseEntity<ChangeSet<TransactionView, Long>> getTransactionChanges(@RequestParam(name = "since", required = false) String since,
+                                                                                  @RequestParam(name = "size", required = false) Integer size,
+                                                                                  @RequestParam(name = "currency", required = false) String currency){
+        return ResponseEntity.ok(syncService.getTransactionChanges(since, size, currency));
+    }
+
+    @GetMapping(path = "/accounts/changes")
+    public ResponseEntity<ChangeSet<AccountView, String>> getAccountChanges(@RequestParam(name = "since", required = false) String since,
+                                                                            @RequestParam(name = "size", required = false) Integer size,
+                                                                            @RequestParam(name = "currency", required = false) String currency){
+        return ResponseEntity.ok(syncService.getAccountChanges(since, size, currency));
+    }
+}
@@ -0,0 +1,75 @@
+package com.rbc.my_budget.sync;
+
+import com.rbc.my_budget.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque sync token for a position in the change sequence. Within one sequence number changed
+ * rows come first, ordered by key, then tombstones, ordered by id; the token names the last entry
+ * a client has seen.
+ */
+final class SyncCursor {
+
+    static final Position START = new Position(0, false, "");
+
+    private SyncCursor() {
+    }
+
+    static String encode(Position position) {
+        String raw = position.seq() + ":" + (position.tombstone() ? "t" : "r") + ":" + position.key();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return null;
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3 || !(parts[1].equals("r") || parts[1].equals("t")))
+                throw new InvalidCursorException(cursor);
+
+            Position position = new Position(Long.parseLong(parts[0]), parts[1].equals("t"), parts[2]);
+            if (position.seq() < 0 || (position.tombstone() && Long.parseLong(position.key()) < 0))
+                throw new InvalidCursorException(cursor);
+            return position;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Position past every entry up to and including {@code seq}.
+     */
+    static Position through(long seq) {
+        return new Position(seq, true, Long.toString(Long.MAX_VALUE));
+    }
+
+    record Position(long seq, boolean tombstone, String key) {
+
+        // Lower bound for changed rows: past this sequence number once its tombstones have started.
+        long rowSeq() {
+            return tombstone ? seq + 1 : seq;
+        }
+
+        String rowKey() {
+            return tombstone ? "" : key;
+        }
+
+        long rowId() {
+            if (tombstone || key.isEmpty())
+                return 0;
+            try {
+                return Long.parseLong(key);
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException(encode(this));
+            }
+        }
+
+        long tombstoneId() {
+            return tombstone ? Long.parseLong(key) : 0;
+        }
+    }
+}
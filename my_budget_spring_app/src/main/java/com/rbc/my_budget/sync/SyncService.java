@@ -0,0 +1,135 @@
+package com.rbc.my_budget.sync;
+
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.account.AccountView;
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.currency.RateMatrix;
+import com.rbc.my_budget.transaction.TransactionRepository;
+import com.rbc.my_budget.transaction.TransactionView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Answers "what changed since this cursor" for accounts and transactions. Both the rows and the
+ * tombstones are read by index range on the change sequence, so a client that is a few changes
+ * behind reads a few rows. Reads stop at {@link ChangeSequence#watermark()}, so a cursor never
+ * moves past a change that has yet to commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    static final int DEFAULT_PAGE_SIZE = 200;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final ChangeSequence changeSequence;
+    private final CurrencyService currencyService;
+
+    @Transactional(readOnly = true)
+    public ChangeSet<TransactionView, Long> getTransactionChanges(String since, Integer size, String currency) {
+
+        long upTo = changeSequence.watermark();
+        SyncCursor.Position from = SyncCursor.decode(since);
+        SyncCursor.Position start = from == null ? SyncCursor.START : from;
+        int pageSize = pageSize(size);
+
+        List<Entry<TransactionView, Long>> rows = transactionRepository
+                .findChangesAfter(start.rowSeq(), start.rowId(), upTo, Limit.of(pageSize + 1)).stream()
+                .map(change -> new Entry<>(new SyncCursor.Position(change.changeSeq(), false, change.transaction().id().toString()),
+                        change.transaction().id(), change.transaction()))
+                .toList();
+        List<Entry<TransactionView, Long>> tombstones = from == null ? List.of()
+                : tombstones(Tombstone.Kind.TRANSACTION, start, upTo, pageSize, Long::valueOf);
+
+        RateMatrix rates = currency == null ? null : currencyService.getLatestRateMatrix(currency);
+        return changeSet(from, upTo, pageSize, rows, tombstones, rates == null ? UnaryOperator.identity()
+                : transaction -> transaction.withAmountInDefaultCurrency(round(rates.convert(transaction.amount(), transaction.currency(), currency))));
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeSet<AccountView, String> getAccountChanges(String since, Integer size, String currency) {
+
+        long upTo = changeSequence.watermark();
+        SyncCursor.Position from = SyncCursor.decode(since);
+        SyncCursor.Position start = from == null ? SyncCursor.START : from;
+        int pageSize = pageSize(size);
+
+        List<Entry<AccountView, String>> rows = accountRepository
+                .findChangesAfter(start.rowSeq(), start.rowKey(), upTo, Limit.of(pageSize + 1)).stream()
+                .map(change -> new Entry<>(new SyncCursor.Position(change.changeSeq(), false, change.account().name()),
+                        change.account().name(), change.account()))
+                .toList();
+        List<Entry<AccountView, String>> tombstones = from == null ? List.of()
+                : tombstones(Tombstone.Kind.ACCOUNT, start, upTo, pageSize, name -> name);
+
+        RateMatrix rates = currency == null ? null : currencyService.getLatestRateMatrix(currency);
+        return changeSet(from, upTo, pageSize, rows, tombstones, rates == null ? UnaryOperator.identity()
+                : account -> account.withBalanceInDefaultCurrency(round(rates.convert(account.balance(), account.currency(), currency))));
+    }
+
+    private <T, K> List<Entry<T, K>> tombstones(Tombstone.Kind kind, SyncCursor.Position start, long upTo, int pageSize,
+                                                Function<String, K> key) {
+        return tombstoneRepository.findAfter(kind, start.seq(), start.tombstoneId(), upTo, Limit.of(pageSize + 1)).stream()
+                .map(tombstone -> new Entry<T, K>(new SyncCursor.Position(tombstone.getChangeSeq(), true, tombstone.getId().toString()),
+                        key.apply(tombstone.getEntityKey()), null))
+                .toList();
+    }
+
+    // Both lists are in cursor order and hold at most one entry past a full page, so merging them gives the page.
+    private static <T, K> ChangeSet<T, K> changeSet(SyncCursor.Position from, long upTo, int pageSize,
+                                                    List<Entry<T, K>> rows, List<Entry<T, K>> tombstones,
+                                                    UnaryOperator<T> convert) {
+
+        List<Entry<T, K>> page = new ArrayList<>(pageSize);
+        int r = 0;
+        int t = 0;
+        while (page.size() < pageSize && (r < rows.size() || t < tombstones.size())) {
+            boolean takeRow = t == tombstones.size()
+                    || (r < rows.size() && rows.get(r).position().seq() <= tombstones.get(t).position().seq());
+            page.add(takeRow ? rows.get(r++) : tombstones.get(t++));
+        }
+        boolean hasMore = r < rows.size() || t < tombstones.size();
+
+        // An account deleted and created again within one page is reported once, as it ended up.
+        Map<K, Entry<T, K>> latest = new LinkedHashMap<>();
+        for (Entry<T, K> entry : page) {
+            latest.remove(entry.key());
+            latest.put(entry.key(), entry);
+        }
+
+        List<T> changed = latest.values().stream().filter(entry -> entry.row() != null).map(entry -> convert.apply(entry.row())).toList();
+        List<K> deleted = latest.values().stream().filter(entry -> entry.row() == null).map(Entry::key).toList();
+
+        SyncCursor.Position next;
+        if (hasMore)
+            next = page.get(page.size() - 1).position();
+        else
+            next = from != null && from.seq() > upTo ? from : SyncCursor.through(upTo);
+        return new ChangeSet<>(changed, deleted, SyncCursor.encode(next), hasMore);
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.clamp(size, 1, MAX_PAGE_SIZE);
+    }
+
+    private static BigDecimal round(BigDecimal amount) {
+        return amount == null ? null : amount.setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private record Entry<T, K>(SyncCursor.Position position, K key, T row) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.rbc.my_budget.sync;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Marks an account or transaction as deleted at a point in the change sequence, so clients
+ * syncing from an older cursor learn to drop it.
+ */
+@Entity
+@Table(name = "tombstone",
+        indexes = @Index(name = "idx_tombstone_kind_change_seq_id", columnList = "kind, change_seq, id"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class Tombstone {
+
+    public enum Kind {
+        ACCOUNT, TRANSACTION
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Kind kind;
+
+    @Column(name = "entity_key", nullable = false)
+    private String entityKey;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    public Tombstone(Kind kind, String entityKey, long changeSeq, Instant deletedAt) {
+        this.kind = kind;
+        this.entityKey = entityKey;
+        this.changeSeq = changeSeq;
+        this.deletedAt = deletedAt;
+    }
+}
@@ -0,0 +1,35 @@
+package com.rbc.my_budget.sync;
+
+import com.rbc.my_budget.transaction.Type;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    @Query("select t from Tombstone t where t.kind = :kind and t.changeSeq <= :upTo " +
+            "and (t.changeSeq > :seq or (t.changeSeq = :seq and t.id > :afterId)) order by t.changeSeq, t.id")
+    List<Tombstone> findAfter(@Param("kind") Tombstone.Kind kind, @Param("seq") long seq, @Param("afterId") long afterId,
+                              @Param("upTo") long upTo, Limit limit);
+
+    @Query("select max(t.changeSeq) from Tombstone t")
+    Long findMaxChangeSeq();
+
+    @Modifying
+    @Query("insert into Tombstone (kind, entityKey, changeSeq, deletedAt) " +
+            "select :kind, cast(t.id as String), :seq, :deletedAt from Transaction t " +
+            "where (:accountName is null or t.account.name = :accountName) and (:type is null or t.type = :type)")
+    int insertForTransactions(@Param("kind") Tombstone.Kind kind, @Param("accountName") String accountName, @Param("type") Type type,
+                              @Param("seq") long seq, @Param("deletedAt") Instant deletedAt);
+
+    @Modifying
+    @Query("insert into Tombstone (kind, entityKey, changeSeq, deletedAt) select :kind, a.name, :seq, :deletedAt from Account a")
+    int insertForAccounts(@Param("kind") Tombstone.Kind kind, @Param("seq") long seq, @Param("deletedAt") Instant deletedAt);
+}
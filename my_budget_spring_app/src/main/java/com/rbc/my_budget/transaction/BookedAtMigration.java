@@ -0,0 +1,87 @@
+package com.rbc.my_budget.transaction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Brings {@code transaction.booked_at} to NOT NULL on databases that had transactions before the column
+ * existed. Rows without a booking time are given the migration time, which keeps them in id order
+ * behind one another, and the constraint is added once none are left.
+ */
+@Component
+public class BookedAtMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookedAtMigration.class);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionOperations transactionOperations;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    public BookedAtMigration(TransactionRepository transactionRepository, TransactionOperations transactionOperations,
+                             JdbcTemplate jdbcTemplate, Clock clock) {
+        this.transactionRepository = transactionRepository;
+        this.transactionOperations = transactionOperations;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+
+        Instant migratedAt = Instant.now(clock).truncatedTo(ChronoUnit.MICROS);
+        Integer rows = transactionOperations.execute(status -> transactionRepository.backfillBookedAt(migratedAt));
+        if (rows != null && rows > 0)
+            logger.info("Backfilled the booking time of {} transactions with {}", rows, migratedAt);
+
+        // Outside the backfill transaction: MySQL commits implicitly around DDL.
+        jdbcTemplate.execute((ConnectionCallback<Void>) this::requireBookedAt);
+    }
+
+    private Void requireBookedAt(Connection connection) throws SQLException {
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = metaData.storesUpperCaseIdentifiers() ? "TRANSACTION" : "transaction";
+        String column = metaData.storesUpperCaseIdentifiers() ? "BOOKED_AT" : "booked_at";
+
+        String ddl;
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, table, column)) {
+            if (!columns.next() || columns.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls)
+                return null;
+
+            ddl = switch (metaData.getDatabaseProductName()) {
+                case "MySQL" -> "alter table transaction modify booked_at %s(%d) not null"
+                        .formatted(columns.getString("TYPE_NAME"), columns.getInt("DECIMAL_DIGITS"));
+                case "H2" -> "alter table transaction alter column booked_at set not null";
+                default -> null;
+            };
+        }
+
+        if (ddl == null) {
+            logger.warn("transaction.booked_at is still nullable on {}; add the NOT NULL constraint by hand",
+                    metaData.getDatabaseProductName());
+            return null;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(ddl);
+        }
+        logger.info("Made transaction.booked_at NOT NULL");
+        return null;
+    }
+}
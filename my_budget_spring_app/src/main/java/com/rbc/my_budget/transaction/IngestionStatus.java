@@ -0,0 +1,32 @@
+package com.rbc.my_budget.transaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+public record IngestionStatus(String id,
+                              State state,
+                              Instant updatedAt,
+                              @JsonInclude(JsonInclude.Include.NON_EMPTY) List<String> errors) {
+
+    public enum State {
+        QUEUED, COMMITTED, FAILED
+    }
+
+    static IngestionStatus queued(String id, Instant at) {
+        return new IngestionStatus(id, State.QUEUED, at, List.of());
+    }
+
+    static IngestionStatus committed(String id, Instant at) {
+        return new IngestionStatus(id, State.COMMITTED, at, List.of());
+    }
+
+    static IngestionStatus failed(String id, Instant at, List<String> errors) {
+        return new IngestionStatus(id, State.FAILED, at, errors);
+    }
+
+    boolean isFinished() {
+        return state != State.QUEUED;
+    }
+}
@@ -1,5 +1,6 @@
 package com.rbc.my_budget.transaction;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlText;
 import com.rbc.my_budget.account.Account;
@@ -7,6 +8,7 @@ import com.rbc.my_budget.currency.ValidCurrency;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -15,8 +17,15 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_account_name_id", columnList = "account_name, id"),
+        @Index(name = "idx_transaction_account_name_booked_at", columnList = "account_name, booked_at, id"),
+        @Index(name = "idx_transaction_booked_at", columnList = "booked_at, id"),
+        @Index(name = "idx_transaction_change_seq", columnList = "change_seq, id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -53,6 +62,22 @@ public class Transaction {
     @Column (nullable = false)
     private String currency;
 
+    @PastOrPresent(message = "Booking time cannot be in the future.")
+    // Nullable in the mapping so ddl-auto=update can add it to a populated table; BookedAtMigration
+    // backfills older rows and then makes the column NOT NULL.
+    @Column (name = "booked_at")
+    private Instant bookedAt;
+
+    // Stamped by ChangeTracker, or set before a batch insert; Hibernate never writes it.
+    @JsonIgnore
+    @Column (name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
+    public Transaction(Long id, Type type, Account account, String description, BigDecimal amount, String currency,
+                       Instant bookedAt) {
+        this(id, type, account, description, amount, currency, bookedAt, null);
+    }
+
     @JacksonXmlProperty(localName = "Amount")
     public void setAmountElement(AmountElement amountElement) {
         this.currency = amountElement.currency;
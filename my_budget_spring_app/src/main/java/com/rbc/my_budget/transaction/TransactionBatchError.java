@@ -0,0 +1,6 @@
+package com.rbc.my_budget.transaction;
+
+import java.util.List;
+
+public record TransactionBatchError(int index, List<String> messages) {
+}
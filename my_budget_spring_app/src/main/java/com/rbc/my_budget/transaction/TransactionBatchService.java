@@ -0,0 +1,158 @@
+package com.rbc.my_budget.transaction;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.exception.BatchTooLargeException;
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import com.rbc.my_budget.ledger.LedgerEventType;
+import com.rbc.my_budget.ledger.LedgerService;
+import com.rbc.my_budget.monthly.MonthlyTotalService;
+import com.rbc.my_budget.sync.ChangeSequence;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk counterpart of {@link TransactionService#createTransaction}. Valid items are inserted in
+ * JDBC batches and each affected account receives a single net balance update; invalid items are
+ * skipped and reported back by their position in the request.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final CurrencyService currencyService;
+    private final LedgerService ledgerService;
+    private final MonthlyTotalService monthlyTotalService;
+    private final ChangeSequence changeSequence;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    @Transactional
+    public TransactionBatchResult createTransactions(List<Transaction> batch) {
+
+        if (batch.size() > MAX_BATCH_SIZE)
+            throw new BatchTooLargeException(batch.size(), MAX_BATCH_SIZE);
+
+        Map<String, Account> accounts = findAccounts(batch);
+        Map<String, Optional<BigDecimal>> rates = new HashMap<>();
+        // Sorted so concurrent batches lock account rows in the same order.
+        Map<String, BigDecimal> deltas = new TreeMap<>();
+        LocalDate today = LocalDate.now(clock);
+        Instant bookedAt = Instant.now(clock).truncatedTo(ChronoUnit.MICROS);
+
+        List<Transaction> accepted = new ArrayList<>(batch.size());
+        List<TransactionBatchError> errors = new ArrayList<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            Transaction transaction = batch.get(i);
+
+            List<String> messages = validate(transaction);
+            if (!messages.isEmpty()) {
+                errors.add(new TransactionBatchError(i, messages));
+                continue;
+            }
+
+            Account account = accounts.get(transaction.getAccount().getName());
+            if (account == null) {
+                errors.add(new TransactionBatchError(i, List.of("Account not found with ID: " + transaction.getAccount().getName())));
+                continue;
+            }
+
+            BigDecimal amount = transaction.getAmount();
+            if (!account.getCurrency().equals(transaction.getCurrency())) {
+                Optional<BigDecimal> rate = rates.computeIfAbsent(transaction.getCurrency() + "/" + account.getCurrency(),
+                        pair -> exchangeRate(transaction.getCurrency(), account.getCurrency(), today));
+                if (rate.isEmpty()) {
+                    errors.add(new TransactionBatchError(i, List.of(
+                            "No exchange rate from " + transaction.getCurrency() + " to " + account.getCurrency() + ".")));
+                    continue;
+                }
+                amount = amount.multiply(rate.get());
+            }
+
+            deltas.merge(account.getName(), Type.CREDIT.equals(transaction.getType()) ? amount : amount.negate(), BigDecimal::add);
+            transaction.setId(null);
+            transaction.setAccount(account);
+            if (transaction.getBookedAt() == null)
+                transaction.setBookedAt(bookedAt);
+            accepted.add(transaction);
+        }
+
+        // The rows carry their change sequence in the insert rather than being stamped one by one afterwards.
+        long changeSeq = changeSequence.next();
+        accepted.forEach(transaction -> transaction.setChangeSeq(changeSeq));
+        transactionRepository.insertAll(accepted);
+        deltas.forEach(accountRepository::addToBalance);
+        ledgerService.recordAll(deltas, LedgerEventType.CREATE);
+        monthlyTotalService.addAll(accepted);
+        eventPublisher.publishEvent(new TransactionsChangedEvent(Set.copyOf(deltas.keySet())));
+
+        return new TransactionBatchResult(batch.size(), accepted.size(), errors);
+    }
+
+    private Map<String, Account> findAccounts(List<Transaction> batch) {
+
+        Set<String> names = batch.stream()
+                .filter(Objects::nonNull)
+                .map(Transaction::getAccount)
+                .filter(account -> account != null && account.getName() != null)
+                .map(Account::getName)
+                .collect(Collectors.toSet());
+
+        // Keyed case-insensitively, like the database compares names; see AccountNames.
+        return accountRepository.findAllById(names).stream()
+                .collect(Collectors.toMap(Account::getName, Function.identity(), (first, second) -> first,
+                        () -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER)));
+    }
+
+    // A missing rate fails only the items that need it, and is remembered so they do not each wait for it.
+    private Optional<BigDecimal> exchangeRate(String currency, String accountCurrency, LocalDate date) {
+        try {
+            return Optional.ofNullable(currencyService.getExchangeRate(currency, accountCurrency, date));
+        } catch (ExchangeRateUnavailableException e) {
+            return Optional.empty();
+        }
+    }
+
+    private List<String> validate(Transaction transaction) {
+
+        if (transaction == null)
+            return List.of("Transaction cannot be null.");
+
+        List<String> messages = validator.validate(transaction).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        if (transaction.getAccount() != null && transaction.getAccount().getName() == null)
+            messages.add("Account name cannot be null.");
+
+        return messages;
+    }
+}
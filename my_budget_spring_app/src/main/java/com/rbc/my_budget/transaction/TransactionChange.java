@@ -0,0 +1,15 @@
+package com.rbc.my_budget.transaction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A transaction as of the change sequence it was last stamped with.
+ */
+public record TransactionChange(long changeSeq, TransactionView transaction) {
+
+    public TransactionChange(Long changeSeq, Long id, Type type, String accountName, String description, BigDecimal amount,
+                             String currency, Instant bookedAt) {
+        this(changeSeq, new TransactionView(id, type, accountName, description, amount, currency, bookedAt));
+    }
+}
@@ -1,11 +1,21 @@
 package com.rbc.my_budget.transaction;
 
+import com.rbc.my_budget.etag.ETags;
+import com.rbc.my_budget.etag.ResourceVersions;
+import com.rbc.my_budget.idempotency.IdempotencyStore;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 
 @RestController
@@ -14,32 +24,98 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionBatchService transactionBatchService;
+    private final IdempotencyStore idempotencyStore;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
-    public ResponseEntity<List<Transaction>> getAllTransactions(){
-        return ResponseEntity.ok(transactionService.getAllTransactions());
+    public ResponseEntity<List<TransactionView>> getAllTransactions(@RequestParam(name = "currency", required = false) String currency,
+                                                                    @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        return ETags.respond(ifNoneMatch, resourceVersions.transactionsTag(currency), () -> transactionService.getAllTransactions(currency));
     }
 
     @GetMapping(path="{accountName}")
-    public ResponseEntity<List<Transaction>> getAllTransactionsForAccount(@PathVariable("accountName") String accountName){
-        return ResponseEntity.ok(transactionService.getTransactionsForAccount(accountName));
+    public ResponseEntity<List<TransactionView>> getAllTransactionsForAccount(@PathVariable("accountName") String accountName,
+                                                                          @RequestParam(name = "currency", required = false) String currency,
+                                                                          @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        return ETags.respond(ifNoneMatch, resourceVersions.transactionsTag(currency),
+                () -> transactionService.getTransactionsForAccount(accountName, currency));
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<TransactionPage> getTransactionPage(@RequestParam(name = "cursor", required = false) String cursor,
+                                                              @RequestParam(name = "size") int size,
+                                                              @RequestParam(name = "currency", required = false) String currency,
+                                                              @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        return ETags.respond(ifNoneMatch, resourceVersions.transactionsTag(currency),
+                () -> transactionService.getTransactionPage(cursor, size, currency));
+    }
+
+    @GetMapping(path="{accountName}", params = "size")
+    public ResponseEntity<TransactionPage> getTransactionPageForAccount(@PathVariable("accountName") String accountName,
+                                                                        @RequestParam(name = "cursor", required = false) String cursor,
+                                                                        @RequestParam(name = "size") int size,
+                                                                        @RequestParam(name = "currency", required = false) String currency,
+                                                                        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        return ETags.respond(ifNoneMatch, resourceVersions.transactionsTag(currency),
+                () -> transactionService.getTransactionPageForAccount(accountName, cursor, size, currency));
+    }
+
+    @GetMapping(path = "/search")
+    public ResponseEntity<TransactionPage> searchTransactions(@RequestParam(name = "account", required = false) String accountName,
+                                                              @RequestParam(name = "type", required = false) Type type,
+                                                              @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                              @RequestParam(name = "minAmount", required = false) BigDecimal minAmount,
+                                                              @RequestParam(name = "maxAmount", required = false) BigDecimal maxAmount,
+                                                              @RequestParam(name = "cursor", required = false) String cursor,
+                                                              @RequestParam(name = "size", required = false) Integer size,
+                                                              @RequestParam(name = "currency", required = false) String currency,
+                                                              @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        // Dates are whole UTC days, both ends inclusive.
+        TransactionFilter filter = new TransactionFilter(accountName, type,
+                from == null ? null : from.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                to == null ? null : to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                minAmount, maxAmount);
+        return ETags.respond(ifNoneMatch, resourceVersions.transactionsTag(currency),
+                () -> transactionService.searchTransactions(filter, cursor, size, currency));
+    }
+
+    @GetMapping(path = "/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(){
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(transactionExportService::exportTransactions);
     }
 
     @GetMapping(path = "/transaction/{id}")
-    public ResponseEntity<Transaction> getTransaction(@PathVariable("id") Long id){
-        return ResponseEntity.ok(transactionService.getTransaction(id));
+    public ResponseEntity<TransactionView> getTransaction(@PathVariable("id") Long id,
+                                                          @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        return ETags.respond(ifNoneMatch, resourceVersions.transactionsTag(null), () -> transactionService.getTransaction(id));
     }
 
     @PostMapping
-    public ResponseEntity<?> createTransaction(@Valid  @RequestBody Transaction newTransaction) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.createTransaction(newTransaction));
+    public ResponseEntity<TransactionView> createTransaction(@Valid  @RequestBody Transaction newTransaction,
+                                                            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "create", newTransaction, () ->
+                ResponseEntity.status(HttpStatus.CREATED).body(TransactionView.of(transactionService.createTransaction(newTransaction))));
+    }
+
+    @PostMapping(path = "/batch")
+    public ResponseEntity<TransactionBatchResult> createTransactions(@RequestBody List<Transaction> transactions,
+                                                                     @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "batch", transactions, () ->
+                ResponseEntity.ok(transactionBatchService.createTransactions(transactions)));
     }
 
 
     @PutMapping(path = "/transaction/{id}")
-    public ResponseEntity<?> updateTransaction( @PathVariable("id") Long id,
-                            @Valid @RequestBody Transaction updatedTransaction) {
-        return ResponseEntity.ok(transactionService.editTransaction(id, updatedTransaction));
+    public ResponseEntity<TransactionView> updateTransaction( @PathVariable("id") Long id,
+                            @Valid @RequestBody Transaction updatedTransaction,
+                            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "edit " + id, updatedTransaction, () ->
+                ResponseEntity.ok(TransactionView.of(transactionService.editTransaction(id, updatedTransaction))));
     }
 
 
@@ -50,8 +126,9 @@ public class TransactionController {
     }
 
     @DeleteMapping
-    public ResponseEntity<Void> deleteAllTransactions() {
-        transactionService.deleteAllTransactions();
+    public ResponseEntity<Void> deleteTransactions(@RequestParam(name = "account", required = false) String accountName,
+                                                   @RequestParam(name = "type", required = false) Type type) {
+        transactionService.deleteTransactions(accountName, type);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 
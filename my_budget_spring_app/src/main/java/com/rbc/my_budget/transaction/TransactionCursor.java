@@ -0,0 +1,62 @@
+package com.rbc.my_budget.transaction;
+
+import com.rbc.my_budget.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque page token wrapping the id of the last transaction on a page. Pages are ordered by
+ * descending id, so the next page continues with ids strictly below the encoded one. Search
+ * results are ordered by booking time first, so their tokens carry the booking time as well.
+ */
+final class TransactionCursor {
+
+    static final long FIRST_PAGE = Long.MAX_VALUE;
+
+    private TransactionCursor() {
+    }
+
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return FIRST_PAGE;
+
+        try {
+            long id = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+            if (id <= 0)
+                throw new InvalidCursorException(cursor);
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    static String encode(Instant lastBookedAt, long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((lastBookedAt + "|" + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static Position decodePosition(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return null;
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split("\\|", -1);
+            if (parts.length != 2)
+                throw new InvalidCursorException(cursor);
+            return new Position(Instant.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    record Position(Instant bookedAt, long id) {
+    }
+}
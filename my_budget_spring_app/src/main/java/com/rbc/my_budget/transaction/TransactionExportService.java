@@ -0,0 +1,59 @@
+package com.rbc.my_budget.transaction;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every transaction as a JSON array straight from a database cursor. Rows are serialized
+ * and detached one at a time, so memory stays flat however large the table grows.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    static final int FLUSH_EVERY = 500;
+
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public long exportTransactions(OutputStream out) throws IOException {
+
+        ObjectWriter writer = objectMapper.writerFor(Transaction.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long written = 0;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+             Stream<Transaction> transactions = transactionRepository.streamAllWithAccount()) {
+
+            generator.writeStartArray();
+            generator.flush();
+
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                writer.writeValue(generator, transaction);
+                entityManager.detach(transaction);
+
+                if (++written % FLUSH_EVERY == 0)
+                    generator.flush();
+            }
+
+            generator.writeEndArray();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,16 @@
+package com.rbc.my_budget.transaction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Search criteria for {@link TransactionService#searchTransactions}. Every field is optional;
+ * {@code bookedFrom} is inclusive and {@code bookedBefore} exclusive.
+ */
+public record TransactionFilter(String accountName,
+                                Type type,
+                                Instant bookedFrom,
+                                Instant bookedBefore,
+                                BigDecimal minAmount,
+                                BigDecimal maxAmount) {
+}
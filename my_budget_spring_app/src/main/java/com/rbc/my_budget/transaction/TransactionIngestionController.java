@@ -0,0 +1,30 @@
+package com.rbc.my_budget.transaction;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+@RestController
+@RequestMapping(value = "/transactions/ingest")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "transactions.ingestion", name = "enabled", havingValue = "true")
+public class TransactionIngestionController {
+
+    private final TransactionIngestionService transactionIngestionService;
+
+    @PostMapping
+    public ResponseEntity<IngestionStatus> ingestTransaction(@Valid @RequestBody Transaction transaction) {
+        IngestionStatus status = transactionIngestionService.submit(transaction);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(status.id()).toUri())
+                .body(status);
+    }
+
+    @GetMapping(path = "{id}")
+    public ResponseEntity<IngestionStatus> getIngestionStatus(@PathVariable("id") String id) {
+        return ResponseEntity.ok(transactionIngestionService.getStatus(id));
+    }
+}
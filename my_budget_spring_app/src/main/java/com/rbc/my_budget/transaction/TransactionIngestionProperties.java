@@ -0,0 +1,15 @@
+package com.rbc.my_budget.transaction;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "transactions.ingestion")
+public record TransactionIngestionProperties(@DefaultValue("false") boolean enabled,
+                                             @DefaultValue("4") int partitions,
+                                             @DefaultValue("10000") int queueCapacity,
+                                             @DefaultValue("500") int batchSize,
+                                             @DefaultValue("20ms") Duration linger,
+                                             @DefaultValue("1h") Duration statusRetention) {
+}
@@ -0,0 +1,194 @@
+package com.rbc.my_budget.transaction;
+
+import com.rbc.my_budget.exception.IngestionQueueFullException;
+import com.rbc.my_budget.exception.NotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Optional write-behind path for {@code POST /transactions/ingest}. Accepted transactions are queued
+ * per account partition and a single writer thread per partition commits them in groups through
+ * {@link TransactionBatchService}, so a burst of requests costs one database transaction and one
+ * balance update per account per batch instead of one of each per request.
+ * <p>
+ * Queues are bounded; when a partition is full new writes are refused rather than buffered. Writers
+ * run on virtual threads when {@code spring.threads.virtual.enabled} is set.
+ */
+@Service
+@ConditionalOnProperty(prefix = "transactions.ingestion", name = "enabled", havingValue = "true")
+public class TransactionIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIngestionService.class);
+    private static final long POLL_MILLIS = 200;
+
+    private final TransactionBatchService transactionBatchService;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration linger;
+    private final Duration statusRetention;
+
+    private final List<BlockingQueue<PendingTransaction>> partitions;
+    private final List<Thread> writers;
+    private final ConcurrentMap<String, IngestionStatus> statuses = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public TransactionIngestionService(TransactionBatchService transactionBatchService,
+                                       TransactionIngestionProperties properties, Clock clock, Environment environment) {
+        this.transactionBatchService = transactionBatchService;
+        this.clock = clock;
+        this.batchSize = Math.clamp(properties.batchSize(), 1, TransactionBatchService.MAX_BATCH_SIZE);
+        this.linger = properties.linger();
+        this.statusRetention = properties.statusRetention();
+
+        int partitionCount = Math.max(1, properties.partitions());
+        int partitionCapacity = Math.max(1, properties.queueCapacity() / partitionCount);
+
+        this.partitions = IntStream.range(0, partitionCount)
+                .<BlockingQueue<PendingTransaction>>mapToObj(i -> new ArrayBlockingQueue<>(partitionCapacity))
+                .toList();
+        boolean virtual = Threading.VIRTUAL.isActive(environment);
+        this.writers = IntStream.range(0, partitionCount)
+                .mapToObj(i -> writerThread(virtual, "transaction-writer-" + i).unstarted(() -> drain(partitions.get(i))))
+                .toList();
+    }
+
+    @PostConstruct
+    public void start() {
+        writers.forEach(Thread::start);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Writers finish whatever is already queued before exiting.
+        running = false;
+        for (Thread writer : writers)
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public IngestionStatus submit(Transaction transaction) {
+
+        if (!running)
+            throw new IngestionQueueFullException();
+
+        String id = UUID.randomUUID().toString();
+        IngestionStatus status = IngestionStatus.queued(id, clock.instant());
+        statuses.put(id, status);
+
+        if (!partitionFor(transaction).offer(new PendingTransaction(id, transaction))) {
+            statuses.remove(id);
+            throw new IngestionQueueFullException();
+        }
+        return status;
+    }
+
+    public IngestionStatus getStatus(String id) {
+        IngestionStatus status = statuses.get(id);
+        if (status == null)
+            throw new NotFoundException(IngestionStatus.class, id);
+        return status;
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void evictFinishedStatuses() {
+        Instant cutoff = clock.instant().minus(statusRetention);
+        statuses.values().removeIf(status -> status.isFinished() && status.updatedAt().isBefore(cutoff));
+    }
+
+    private BlockingQueue<PendingTransaction> partitionFor(Transaction transaction) {
+        String accountName = transaction.getAccount() == null ? null : transaction.getAccount().getName();
+        return partitions.get(Math.floorMod(accountName == null ? 0 : accountName.hashCode(), partitions.size()));
+    }
+
+    private void drain(BlockingQueue<PendingTransaction> queue) {
+
+        List<PendingTransaction> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTransaction first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+
+                batch.add(first);
+                fill(queue, batch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Transaction writer interrupted with {} transactions still queued", queue.size());
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fill(BlockingQueue<PendingTransaction> queue, List<PendingTransaction> batch) throws InterruptedException {
+
+        long deadline = System.nanoTime() + linger.toNanos();
+
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0)
+                continue;
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+                return;
+
+            PendingTransaction next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null)
+                return;
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingTransaction> batch) {
+
+        try {
+            TransactionBatchResult result = transactionBatchService.createTransactions(
+                    batch.stream().map(PendingTransaction::transaction).toList());
+
+            Map<Integer, List<String>> errors = new HashMap<>();
+            result.errors().forEach(error -> errors.put(error.index(), error.messages()));
+
+            Instant now = clock.instant();
+            for (int i = 0; i < batch.size(); i++) {
+                String id = batch.get(i).id();
+                statuses.put(id, errors.containsKey(i) ? IngestionStatus.failed(id, now, errors.get(i)) : IngestionStatus.committed(id, now));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Group commit of {} transactions failed", batch.size(), e);
+            Instant now = clock.instant();
+            for (PendingTransaction pending : batch)
+                statuses.put(pending.id(), IngestionStatus.failed(pending.id(), now, List.of("Transaction could not be saved.")));
+        }
+    }
+
+    private static Thread.Builder writerThread(boolean virtual, String name) {
+        return virtual ? Thread.ofVirtual().name(name) : Thread.ofPlatform().name(name).daemon();
+    }
+
+    private record PendingTransaction(String id, Transaction transaction) {
+    }
+}
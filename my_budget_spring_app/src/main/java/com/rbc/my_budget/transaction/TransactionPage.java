@@ -0,0 +1,9 @@
+package com.rbc.my_budget.transaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public record TransactionPage(List<TransactionView> items,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor) {
+}
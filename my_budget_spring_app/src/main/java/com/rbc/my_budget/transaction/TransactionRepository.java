@@ -1,12 +1,79 @@
 package com.rbc.my_budget.transaction;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction>,
+        TransactionRepositoryCustom {
 
-    List<Transaction> findByAccountName(String accountName);
+    @Query("select new com.rbc.my_budget.transaction.TransactionView(t.id, t.type, t.account.name, t.description, t.amount, t.currency, t.bookedAt) " +
+            "from Transaction t order by t.id")
+    List<TransactionView> findAllViews();
+
+    @Query("select new com.rbc.my_budget.transaction.TransactionView(t.id, t.type, t.account.name, t.description, t.amount, t.currency, t.bookedAt) " +
+            "from Transaction t where t.account.name = :accountName order by t.id")
+    List<TransactionView> findViewsByAccountName(@Param("accountName") String accountName);
+
+    @Query("select new com.rbc.my_budget.transaction.TransactionView(t.id, t.type, t.account.name, t.description, t.amount, t.currency, t.bookedAt) " +
+            "from Transaction t where t.id < :beforeId order by t.id desc")
+    List<TransactionView> findViewsBefore(@Param("beforeId") long beforeId, Limit limit);
+
+    @Query("select new com.rbc.my_budget.transaction.TransactionView(t.id, t.type, t.account.name, t.description, t.amount, t.currency, t.bookedAt) " +
+            "from Transaction t where t.account.name = :accountName and t.id < :beforeId order by t.id desc")
+    List<TransactionView> findViewsByAccountNameBefore(@Param("accountName") String accountName, @Param("beforeId") long beforeId, Limit limit);
+
+    @Query("select new com.rbc.my_budget.transaction.TransactionView(t.id, t.type, t.account.name, t.description, t.amount, t.currency, t.bookedAt) " +
+            "from Transaction t where t.id = :id")
+    Optional<TransactionView> findViewById(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Transaction t join fetch t.account order by t.id")
+    Stream<Transaction> streamAllWithAccount();
+
+    @Query("select new com.rbc.my_budget.transaction.TransactionTotal(a.name, a.currency, t.currency, t.type, sum(t.amount)) " +
+            "from Transaction t join t.account a " +
+            "where a.name in :accountNames and (:type is null or t.type = :type) " +
+            "group by a.name, a.currency, t.currency, t.type")
+    List<TransactionTotal> sumAmounts(@Param("accountNames") Collection<String> accountNames, @Param("type") Type type);
+
+    @Modifying
+    @Query("delete from Transaction t where t.account.name in :accountNames and (:type is null or t.type = :type)")
+    int deleteMatching(@Param("accountNames") Collection<String> accountNames, @Param("type") Type type);
+
+    @Query("select new com.rbc.my_budget.transaction.TransactionChange(t.changeSeq, t.id, t.type, t.account.name, t.description, t.amount, t.currency, t.bookedAt) " +
+            "from Transaction t where t.changeSeq <= :upTo and (t.changeSeq > :seq or (t.changeSeq = :seq and t.id > :afterId)) order by t.changeSeq, t.id")
+    List<TransactionChange> findChangesAfter(@Param("seq") long seq, @Param("afterId") long afterId, @Param("upTo") long upTo, Limit limit);
+
+    @Query("select max(t.changeSeq) from Transaction t")
+    Long findMaxChangeSeq();
+
+    @Modifying
+    @Query("update Transaction t set t.changeSeq = :seq where t.id = :id")
+    int stampChangeSeq(@Param("id") Long id, @Param("seq") long seq);
+
+    @Modifying
+    @Query("update Transaction t set t.changeSeq = :seq where t.changeSeq is null")
+    int stampUntracked(@Param("seq") long seq);
+
+    @Modifying
+    @Query("update Transaction t set t.bookedAt = :bookedAt where t.bookedAt is null")
+    int backfillBookedAt(@Param("bookedAt") Instant bookedAt);
 }
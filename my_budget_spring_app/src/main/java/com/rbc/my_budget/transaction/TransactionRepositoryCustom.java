@@ -0,0 +1,8 @@
+package com.rbc.my_budget.transaction;
+
+import java.util.List;
+
+public interface TransactionRepositoryCustom {
+
+    void insertAll(List<Transaction> transactions);
+}
@@ -0,0 +1,37 @@
+package com.rbc.my_budget.transaction;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Plain JDBC batch insert for bulk ingestion. Hibernate cannot batch inserts for IDENTITY ids,
+ * so large imports go through here instead; with {@code rewriteBatchedStatements=true} MySQL
+ * receives one multi-row insert per chunk.
+ */
+@RequiredArgsConstructor
+class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "insert into transaction (type, account_name, description, amount, currency, booked_at, change_seq) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, BATCH_SIZE, (statement, transaction) -> {
+            statement.setString(1, transaction.getType().name());
+            statement.setString(2, transaction.getAccount().getName());
+            statement.setString(3, transaction.getDescription());
+            statement.setBigDecimal(4, transaction.getAmount());
+            statement.setString(5, transaction.getCurrency());
+            statement.setTimestamp(6, Timestamp.from(transaction.getBookedAt()));
+            statement.setObject(7, transaction.getChangeSeq(), Types.BIGINT);
+        });
+    }
+}
@@ -1,43 +1,137 @@
 package com.rbc.my_budget.transaction;
 
 import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountCache;
 import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.account.AccountView;
 import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.currency.RateMatrix;
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import com.rbc.my_budget.exception.InvalidFilterException;
 import com.rbc.my_budget.exception.NotFoundException;
-import jakarta.transaction.Transactional;
+import com.rbc.my_budget.ledger.LedgerEventType;
+import com.rbc.my_budget.ledger.LedgerService;
+import com.rbc.my_budget.monthly.MonthlyTotalService;
+import com.rbc.my_budget.sync.ChangeTracker;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private static final Sort SEARCH_ORDER = Sort.by(Sort.Direction.DESC, "bookedAt", "id");
+
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
     private final CurrencyService currencyService;
+    private final LedgerService ledgerService;
+    private final MonthlyTotalService monthlyTotalService;
+    private final ChangeTracker changeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    @Transactional(readOnly = true)
+    public List<TransactionView> getAllTransactions(){
+        return transactionRepository.findAllViews();
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransactionView> getAllTransactions(String currency){
+        return withAmountsIn(getAllTransactions(), currency);
+    }
 
-    public List<Transaction> getAllTransactions(){
-        return transactionRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<TransactionView> getTransactionsForAccount(String accountName) {
+        return transactionRepository.findViewsByAccountName(accountName);
     }
 
-    public List<Transaction> getTransactionsForAccount(String accountName) {
-        return transactionRepository.findByAccountName(accountName);
+    @Transactional(readOnly = true)
+    public List<TransactionView> getTransactionsForAccount(String accountName, String currency) {
+        return withAmountsIn(getTransactionsForAccount(accountName), currency);
     }
 
-    public Transaction getTransaction(Long id){
-        return transactionRepository.findById(id)
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionPage(String cursor, Integer size, String currency) {
+        return page(cursor, size, currency, (afterId, limit) -> transactionRepository.findViewsBefore(afterId, Limit.of(limit)));
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionPageForAccount(String accountName, String cursor, Integer size, String currency) {
+        return page(cursor, size, currency, (afterId, limit) ->
+                transactionRepository.findViewsByAccountNameBefore(accountName, afterId, Limit.of(limit)));
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionPage searchTransactions(TransactionFilter filter, String cursor, Integer size, String currency) {
+
+        if (filter.bookedFrom() != null && filter.bookedBefore() != null && !filter.bookedFrom().isBefore(filter.bookedBefore()))
+            throw new InvalidFilterException("Date range start must be before its end.");
+        if (filter.minAmount() != null && filter.maxAmount() != null && filter.minAmount().compareTo(filter.maxAmount()) > 0)
+            throw new InvalidFilterException("Minimum amount cannot be greater than maximum amount.");
+
+        int pageSize = pageSize(size);
+        Specification<Transaction> specification = TransactionSpecifications.matching(filter);
+        TransactionCursor.Position position = TransactionCursor.decodePosition(cursor);
+        if (position != null)
+            specification = specification.and(TransactionSpecifications.after(position));
+
+        // The account is fetched in the same query; the rows only need its name.
+        List<TransactionView> rows = transactionRepository.findBy(specification,
+                query -> query.sortBy(SEARCH_ORDER).project("account").limit(pageSize + 1).all()).stream()
+                .map(TransactionView::of)
+                .toList();
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionView> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        TransactionView last = items.isEmpty() ? null : items.get(items.size() - 1);
+        String nextCursor = hasMore ? TransactionCursor.encode(last.bookedAt(), last.id()) : null;
+        return new TransactionPage(withAmountsIn(items, currency), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionView getTransaction(Long id){
+        return transactionRepository.findViewById(id)
                 .orElseThrow(() -> new NotFoundException(Transaction.class, id));
     }
 
     @Transactional
     public Transaction createTransaction(Transaction transaction){
-        Account account = updateAccountBalance(transaction, transaction.getType());
-        transaction.setAccount(account);
-        return transactionRepository.save(transaction);
+        String accountName = transaction.getAccount().getName();
+        AccountView account = accountCache.get(accountName)
+                .orElseThrow(() -> new NotFoundException(Account.class, accountName));
+        // A reference is all the foreign key needs; the cached view supplies the currency.
+        transaction.setAccount(accountRepository.getReferenceById(account.name()));
+        if (transaction.getBookedAt() == null)
+            transaction.setBookedAt(Instant.now(clock).truncatedTo(ChronoUnit.MICROS));
+        Transaction savedTransaction = transactionRepository.save(transaction);
+
+        // Balance last, so the account row stays locked for as little of the transaction as possible.
+        updateAccountBalance(transaction, account.currency(), transaction.getType(), LedgerEventType.CREATE);
+        monthlyTotalService.add(transaction);
+        eventPublisher.publishEvent(TransactionsChangedEvent.created(TransactionView.of(transaction)));
+        return savedTransaction;
     }
 
     @Transactional
@@ -46,15 +140,59 @@ public class TransactionService {
         Transaction existingTransaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(Transaction.class, id));
 
-        updateAccountBalance(existingTransaction,existingTransaction.getType().getOpposite());
-        existingTransaction.setAccount(updateAccountBalance(updatedTransaction,updatedTransaction.getType()));
+        Account previousAccount = existingTransaction.getAccount();
+        String accountName = updatedTransaction.getAccount().getName();
+        boolean accountChanged = !previousAccount.getName().equals(accountName);
+        String accountCurrency = accountChanged
+                ? accountCache.get(accountName).orElseThrow(() -> new NotFoundException(Account.class, accountName)).currency()
+                : previousAccount.getCurrency();
+        Account account = accountChanged ? accountRepository.getReferenceById(accountName) : previousAccount;
+
+        boolean balanceChanged = account != previousAccount
+                || existingTransaction.getType() != updatedTransaction.getType()
+                || existingTransaction.getAmount().compareTo(updatedTransaction.getAmount()) != 0
+                || !existingTransaction.getCurrency().equals(updatedTransaction.getCurrency());
+        boolean monthlyTotalsChanged = balanceChanged
+                || (updatedTransaction.getBookedAt() != null && !updatedTransaction.getBookedAt().equals(existingTransaction.getBookedAt()));
 
+        if (balanceChanged) {
+            LocalDate today = LocalDate.now(clock);
+            Map<String, BigDecimal> rates = new HashMap<>();
+            // Sorted so concurrent edits lock account rows in the same order.
+            Map<String, BigDecimal> deltas = new TreeMap<>();
+            deltas.merge(previousAccount.getName(), signedAmount(existingTransaction, previousAccount.getCurrency(), rates, today).negate(), BigDecimal::add);
+            deltas.merge(account.getName(), signedAmount(updatedTransaction, accountCurrency, rates, today), BigDecimal::add);
+
+            deltas.forEach((name, delta) -> {
+                if (delta.signum() != 0) {
+                    accountRepository.addToBalance(name, delta);
+                    ledgerService.record(name, LedgerEventType.EDIT, id, delta);
+                } else {
+                    accountRepository.lockByName(name);
+                }
+            });
+        } else if (monthlyTotalsChanged) {
+            // Only the booking time moved. The monthly totals below still need the account lock, which
+            // serialises their increment-then-insert; a balance update would otherwise have taken it.
+            accountRepository.lockByName(account.getName());
+        }
+
+        if (monthlyTotalsChanged)
+            monthlyTotalService.remove(existingTransaction);
+
+        existingTransaction.setAccount(account);
         existingTransaction.setType(updatedTransaction.getType());
         existingTransaction.setAmount(updatedTransaction.getAmount());
         existingTransaction.setCurrency(updatedTransaction.getCurrency());
         existingTransaction.setDescription(updatedTransaction.getDescription());
+        if (updatedTransaction.getBookedAt() != null)
+            existingTransaction.setBookedAt(updatedTransaction.getBookedAt());
 
-        return transactionRepository.save(existingTransaction);
+        if (monthlyTotalsChanged)
+            monthlyTotalService.add(existingTransaction);
+        Transaction savedTransaction = transactionRepository.save(existingTransaction);
+        eventPublisher.publishEvent(TransactionsChangedEvent.updated(TransactionView.of(savedTransaction), previousAccount.getName()));
+        return savedTransaction;
     }
 
     @Transactional
@@ -62,7 +200,9 @@ public class TransactionService {
 
         transactionRepository.findById(id).ifPresentOrElse(transaction -> {
                     // Inverse logic when deleting: adjust the account balance
-                    updateAccountBalance(transaction, transaction.getType().getOpposite());
+                    updateAccountBalance(transaction, transaction.getAccount().getCurrency(), transaction.getType().getOpposite(), LedgerEventType.DELETE);
+                    monthlyTotalService.remove(transaction);
+                    eventPublisher.publishEvent(TransactionsChangedEvent.deleted(TransactionView.of(transaction)));
 
                     transactionRepository.delete(transaction);
                 },
@@ -71,30 +211,109 @@ public class TransactionService {
 
     @Transactional
     public void deleteAllTransactions() {
+        deleteTransactions(null, null);
+    }
 
-        List<Transaction> allTransactions = transactionRepository.findAll();
+    @Transactional
+    public int deleteTransactions(String accountName, Type type) {
 
-        for (Transaction transaction : allTransactions)
-            updateAccountBalance(transaction, transaction.getType().getOpposite());
+        // Locked in name order before summing, so no transaction can be added to these accounts between
+        // the sum and the delete; one that commits in between would be deleted without its amount.
+        List<Account> locked = accountName == null ? accountRepository.lockAll() : accountRepository.lockByName(accountName).stream().toList();
+        List<String> accountNames = locked.stream().map(Account::getName).toList();
+        if (accountNames.isEmpty())
+            return 0;
 
-        transactionRepository.deleteAll();
+        LocalDate today = LocalDate.now(clock);
+        Map<String, BigDecimal> deltas = new TreeMap<>();
+
+        for (TransactionTotal total : transactionRepository.sumAmounts(accountNames, type)) {
+            BigDecimal amount = total.total();
+
+            if (!total.accountCurrency().equals(total.currency())) {
+                amount = amount.multiply(exchangeRate(total.currency(), total.accountCurrency(), today));
+            }
+
+            // Deleting a credit takes the money back out, deleting a debit puts it back.
+            deltas.merge(total.accountName(), Type.CREDIT.equals(total.type()) ? amount.negate() : amount, BigDecimal::add);
+        }
+
+        deltas.forEach(accountRepository::addToBalance);
+        ledgerService.recordAll(deltas, LedgerEventType.DELETE);
+        monthlyTotalService.removeMatching(accountNames, type);
+        eventPublisher.publishEvent(accountName == null ? TransactionsChangedEvent.anyAccount() : TransactionsChangedEvent.of(accountName));
+        changeTracker.transactionsDeleted(accountName, type);
+        return transactionRepository.deleteMatching(accountNames, type);
+    }
+
+    private TransactionPage page(String cursor, Integer size, String currency, PageQuery query) {
+
+        int pageSize = pageSize(size);
+
+        // One extra row tells us whether another page follows without a count query.
+        List<TransactionView> rows = query.fetch(TransactionCursor.decode(cursor), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionView> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasMore ? TransactionCursor.encode(items.get(pageSize - 1).id()) : null;
+        return new TransactionPage(withAmountsIn(items, currency), nextCursor);
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.clamp(size, 1, MAX_PAGE_SIZE);
     }
 
-    private Account updateAccountBalance(Transaction transaction, Type type){
+    private List<TransactionView> withAmountsIn(List<TransactionView> transactions, String currency) {
 
-        Account account = accountRepository.findById(transaction.getAccount().getName())
-                .orElseThrow(() -> new NotFoundException(Account.class, transaction.getAccount().getName()));
+        if (currency == null)
+            return transactions;
 
+        RateMatrix rates = currencyService.getLatestRateMatrix(currency);
+        return transactions.stream()
+                .map(transaction -> {
+                    BigDecimal converted = rates.convert(transaction.amount(), transaction.currency(), currency);
+                    return transaction.withAmountInDefaultCurrency(converted == null ? null : converted.setScale(2, RoundingMode.HALF_EVEN));
+                })
+                .toList();
+    }
+
+    private void updateAccountBalance(Transaction transaction, String accountCurrency, Type type, LedgerEventType event){
+
+        String accountName = transaction.getAccount().getName();
         BigDecimal amount = transaction.getAmount();
 
-        if(!account.getCurrency().equals(transaction.getCurrency()))
-            amount = amount.multiply(currencyService.getExchangeRate(transaction.getCurrency(),account.getCurrency()));
+        if(!accountCurrency.equals(transaction.getCurrency()))
+            amount = amount.multiply(exchangeRate(transaction.getCurrency(), accountCurrency, LocalDate.now(clock)));
+
+        // Applied in the database so concurrent transactions on the same account cannot overwrite each other.
+        BigDecimal delta = Type.CREDIT.equals(type) ? amount : amount.negate();
+        accountRepository.addToBalance(accountName, delta);
+        ledgerService.record(accountName, event, transaction.getId(), delta);
+    }
+
+    // Amount in the account currency, negative for debits. Rates are memoised so an edit looks each pair up once.
+    private BigDecimal signedAmount(Transaction transaction, String accountCurrency, Map<String, BigDecimal> rates, LocalDate today) {
 
-        if (Type.CREDIT.equals(type))
-            account.setBalance(account.getBalance().add(amount));
-        else
-            account.setBalance(account.getBalance().subtract(amount));
+        BigDecimal amount = transaction.getAmount();
+        if (!accountCurrency.equals(transaction.getCurrency())) {
+            BigDecimal rate = rates.computeIfAbsent(transaction.getCurrency() + "/" + accountCurrency,
+                    pair -> exchangeRate(transaction.getCurrency(), accountCurrency, today));
+            amount = amount.multiply(rate);
+        }
+        return Type.CREDIT.equals(transaction.getType()) ? amount : amount.negate();
+    }
+
+    // A missing rate is refused with a 503 rather than surfacing as a NullPointerException mid-write.
+    private BigDecimal exchangeRate(String currency, String accountCurrency, LocalDate date) {
+
+        BigDecimal rate = currencyService.getExchangeRate(currency, accountCurrency, date);
+        if (rate == null)
+            throw new ExchangeRateUnavailableException(currency);
+        return rate;
+    }
 
-        return accountRepository.save(account);
+    @FunctionalInterface
+    private interface PageQuery {
+        List<TransactionView> fetch(long beforeId, int limit);
     }
 }
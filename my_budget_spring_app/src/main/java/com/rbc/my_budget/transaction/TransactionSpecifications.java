@@ -0,0 +1,50 @@
+package com.rbc.my_budget.transaction;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria predicates for transaction search. Account and booking time map onto the
+ * {@code (account_name, booked_at, id)} and {@code (booked_at, id)} indexes, so a date-range
+ * query only scans the rows inside the range; type and amount are checked on those rows.
+ */
+final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    static Specification<Transaction> matching(TransactionFilter filter) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.accountName() != null)
+                predicates.add(builder.equal(root.get("account").get("name"), filter.accountName()));
+            if (filter.type() != null)
+                predicates.add(builder.equal(root.get("type"), filter.type()));
+            if (filter.bookedFrom() != null)
+                predicates.add(builder.greaterThanOrEqualTo(root.get("bookedAt"), filter.bookedFrom()));
+            if (filter.bookedBefore() != null)
+                predicates.add(builder.lessThan(root.get("bookedAt"), filter.bookedBefore()));
+            if (filter.minAmount() != null)
+                predicates.add(builder.greaterThanOrEqualTo(root.get("amount"), filter.minAmount()));
+            if (filter.maxAmount() != null)
+                predicates.add(builder.lessThanOrEqualTo(root.get("amount"), filter.maxAmount()));
+
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Rows strictly after {@code position} in (booked_at desc, id desc) order.
+     */
+    static Specification<Transaction> after(TransactionCursor.Position position) {
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.get("bookedAt"), position.bookedAt()),
+                builder.and(
+                        builder.equal(root.get("bookedAt"), position.bookedAt()),
+                        builder.lessThan(root.get("id"), position.id())));
+    }
+}
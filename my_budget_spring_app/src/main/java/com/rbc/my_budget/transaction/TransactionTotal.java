@@ -0,0 +1,6 @@
+package com.rbc.my_budget.transaction;
+
+import java.math.BigDecimal;
+
+public record TransactionTotal(String accountName, String accountCurrency, String currency, Type type, BigDecimal total) {
+}
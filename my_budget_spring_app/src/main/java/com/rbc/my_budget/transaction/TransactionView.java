@@ -0,0 +1,34 @@
+package com.rbc.my_budget.transaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Row shape for transaction listings. Carries only the account name, so listings are a single
+ * query over the transaction table and rows do not repeat the whole account.
+ */
+public record TransactionView(Long id,
+                              Type type,
+                              String accountName,
+                              String description,
+                              BigDecimal amount,
+                              String currency,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) BigDecimal amountInDefaultCurrency,
+                              Instant bookedAt) {
+
+    public TransactionView(Long id, Type type, String accountName, String description, BigDecimal amount, String currency,
+                           Instant bookedAt) {
+        this(id, type, accountName, description, amount, currency, null, bookedAt);
+    }
+
+    public static TransactionView of(Transaction transaction) {
+        return new TransactionView(transaction.getId(), transaction.getType(), transaction.getAccount().getName(),
+                transaction.getDescription(), transaction.getAmount(), transaction.getCurrency(), transaction.getBookedAt());
+    }
+
+    public TransactionView withAmountInDefaultCurrency(BigDecimal amount) {
+        return new TransactionView(id, type, accountName, description, this.amount, currency, amount, bookedAt);
+    }
+}
@@ -0,0 +1,43 @@
+package com.rbc.my_budget.transaction;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Published by the transaction write paths. A {@code null} account set means the change may have
+ * touched any account.
+ * <p>
+ * Single-transaction writes carry the transaction as written (as deleted, for deletes); bulk writes
+ * carry none and leave listeners to reload what they need.
+ */
+public record TransactionsChangedEvent(Set<String> accountNames, Change change, TransactionView transaction) {
+
+    public enum Change {
+        CREATED, UPDATED, DELETED, BULK
+    }
+
+    public TransactionsChangedEvent(Set<String> accountNames) {
+        this(accountNames, Change.BULK, null);
+    }
+
+    public static TransactionsChangedEvent created(TransactionView transaction) {
+        return new TransactionsChangedEvent(Set.of(transaction.accountName()), Change.CREATED, transaction);
+    }
+
+    public static TransactionsChangedEvent updated(TransactionView transaction, String previousAccountName) {
+        return new TransactionsChangedEvent(Set.copyOf(Arrays.asList(previousAccountName, transaction.accountName())),
+                Change.UPDATED, transaction);
+    }
+
+    public static TransactionsChangedEvent deleted(TransactionView transaction) {
+        return new TransactionsChangedEvent(Set.of(transaction.accountName()), Change.DELETED, transaction);
+    }
+
+    public static TransactionsChangedEvent of(String... accountNames) {
+        return new TransactionsChangedEvent(Set.copyOf(Arrays.asList(accountNames)));
+    }
+
+    public static TransactionsChangedEvent anyAccount() {
+        return new TransactionsChangedEvent(null);
+    }
+}
@@ -2,10 +2,15 @@ package com.rbc.my_budget.xml;
 
 import com.rbc.my_budget.account.Account;
 import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.ledger.LedgerEventType;
+import com.rbc.my_budget.ledger.LedgerService;
+import com.rbc.my_budget.monthly.MonthlyTotalService;
 import com.rbc.my_budget.transaction.Transaction;
 import com.rbc.my_budget.transaction.TransactionRepository;
+import com.rbc.my_budget.transaction.TransactionsChangedEvent;
 import com.rbc.my_budget.transaction.Type;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
@@ -14,6 +19,9 @@ import jakarta.transaction.Transactional;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -25,15 +33,25 @@ public class XmlProcessingService {
     private static final Logger logger = LoggerFactory.getLogger(XmlProcessingService.class);
     private AccountRepository accountRepository;
     private TransactionRepository transactionRepository;
+    private LedgerService ledgerService;
+    private MonthlyTotalService monthlyTotalService;
+    private Clock clock;
+    private ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void processXml() {
         XmlMapper xmlMapper = new XmlMapper();
+        Instant importedAt = Instant.now(clock).truncatedTo(ChronoUnit.MICROS);
 
         try (InputStream is = getClass().getResourceAsStream("/my_budget_data.xml")) {
             List<Account> accounts = xmlMapper.readValue(is, xmlMapper.getTypeFactory().constructCollectionType(List.class, Account.class));
 
             for (Account account : accounts) {
+                // Seeded accounts carry no version, so with @Version save() treats them as new and would
+                // fail the second start on a duplicate key. Accounts imported on an earlier start are kept.
+                if (accountRepository.existsById(account.getName()))
+                    continue;
+
                 if(account.getTransactions() != null){
                     accountRepository.save(account);
                     for (Transaction transaction : account.getTransactions()) {
@@ -45,11 +63,18 @@ public class XmlProcessingService {
                             transaction.setType(Type.CREDIT);
 
                     transaction.setAccount(account);
+                    transaction.setBookedAt(importedAt);
                     transactionRepository.save(transaction);
                     }
+                    monthlyTotalService.addAll(account.getTransactions());
                 } else
                     accountRepository.save(account);
+
+                // The inserted account row is the lock the ledger expects its writers to hold.
+                accountRepository.flush();
+                ledgerService.record(account.getName(), LedgerEventType.IMPORT, null, account.getBalance());
             }
+            eventPublisher.publishEvent(TransactionsChangedEvent.anyAccount());
         } catch (IOException e) {
             logger.error("Error processing XML file", e);
         }
@@ -0,0 +1,107 @@
+package com.rbc.my_budget;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionRepository;
+import com.rbc.my_budget.transaction.TransactionService;
+import com.rbc.my_budget.transaction.Type;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class AccountBalanceConcurrencyTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(AccountBalanceConcurrencyTests.class);
+	private static final int THREADS = 8;
+	private static final int CREDITS_PER_THREAD = 50;
+
+	@Autowired
+	private TransactionService transactionService;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private TransactionRepository transactionRepository;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void concurrentCreditsAreNotLost() throws Exception {
+
+		// Warm up both paths so neither measurement pays for JIT compilation and pool start-up.
+		creditConcurrently("WarmUpLocked", this::createWithPessimisticLock);
+		creditConcurrently("WarmUpAtomic", transactionService::createTransaction);
+
+		long lockedNanos = creditConcurrently("LockedBaseline", this::createWithPessimisticLock);
+		long atomicNanos = creditConcurrently("AtomicDeltas", transactionService::createTransaction);
+
+		logger.info("{} concurrent credits: atomic deltas {} ms, pessimistic lock {} ms",
+				THREADS * CREDITS_PER_THREAD, atomicNanos / 1_000_000, lockedNanos / 1_000_000);
+	}
+
+	private long creditConcurrently(String accountName, Consumer<Transaction> create) throws Exception {
+
+		accountRepository.save(new Account(accountName, BigDecimal.ZERO, "EUR"));
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Callable<Void>> workers = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			workers.add(() -> {
+				for (int j = 0; j < CREDITS_PER_THREAD; j++)
+					create.accept(credit(accountName));
+				return null;
+			});
+		}
+
+		long start = System.nanoTime();
+		try {
+			for (Future<Void> result : executor.invokeAll(workers))
+				result.get();
+		} finally {
+			executor.shutdown();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		BigDecimal expected = BigDecimal.valueOf(THREADS * CREDITS_PER_THREAD);
+		assertEquals(0, expected.compareTo(accountRepository.findById(accountName).orElseThrow().getBalance()));
+		return elapsed;
+	}
+
+	// The read-lock-write approach the atomic delta replaces, kept here as a baseline.
+	private void createWithPessimisticLock(Transaction transaction) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Account account = entityManager.find(Account.class, transaction.getAccount().getName(), LockModeType.PESSIMISTIC_WRITE);
+			account.setBalance(account.getBalance().add(transaction.getAmount()));
+			transaction.setAccount(account);
+			transactionRepository.save(transaction);
+		});
+	}
+
+	private static Transaction credit(String accountName) {
+		Account account = new Account();
+		account.setName(accountName);
+		return new Transaction(null, Type.CREDIT, account, "Concurrent credit", BigDecimal.ONE, "EUR", Instant.now());
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.rbc.my_budget;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.analytics.AnalyticsService;
+import com.rbc.my_budget.analytics.FlowPeriod;
+import com.rbc.my_budget.analytics.PeriodFlow;
+import com.rbc.my_budget.analytics.TypeTotal;
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.currency.RateMatrix;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionService;
+import com.rbc.my_budget.transaction.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class AnalyticsTests {
+
+	private static final String ACCOUNT = "Analytics";
+	private static final LocalDate FROM = LocalDate.of(2024, 7, 1);
+	private static final LocalDate TO = LocalDate.of(2024, 8, 31);
+
+	@Autowired
+	private TransactionService transactionService;
+	@Autowired
+	private AnalyticsService analyticsService;
+	@Autowired
+	private AccountRepository accountRepository;
+	@MockBean
+	private CurrencyService currencyService;
+
+	@BeforeEach
+	void setUp() {
+		when(currencyService.getLatestRateMatrix(anyString())).thenReturn(
+				RateMatrix.of("EUR", "2024-08-20", Map.of("usd", new BigDecimal("2"))));
+		when(currencyService.getExchangeRate(eq("USD"), eq("EUR"), any())).thenReturn(new BigDecimal("0.5"));
+	}
+
+	@Test
+	void reportsAreRecomputedAfterAWriteCommits() {
+
+		Account account = accountRepository.save(new Account(ACCOUNT, BigDecimal.ZERO, "EUR"));
+		transactionService.createTransaction(transaction(account, Type.CREDIT, "100.00", "EUR", "2024-07-03T09:00:00Z"));
+		transactionService.createTransaction(transaction(account, Type.DEBIT, "40.00", "USD", "2024-08-10T09:00:00Z"));
+
+		assertEquals(List.of(
+				new TypeTotal(Type.CREDIT, new BigDecimal("100.00"), 1),
+				new TypeTotal(Type.DEBIT, new BigDecimal("20.00"), 1)),
+				analyticsService.getTypeBreakdown(ACCOUNT, FROM, TO, "EUR").items());
+
+		transactionService.createTransaction(transaction(account, Type.DEBIT, "5.00", "EUR", "2024-08-11T09:00:00Z"));
+
+		assertEquals(List.of(
+				new PeriodFlow(LocalDate.of(2024, 7, 1), new BigDecimal("100.00"), new BigDecimal("0.00"), new BigDecimal("100.00")),
+				new PeriodFlow(LocalDate.of(2024, 8, 1), new BigDecimal("0.00"), new BigDecimal("25.00"), new BigDecimal("-25.00"))),
+				analyticsService.getNetFlow(ACCOUNT, FROM, TO, FlowPeriod.MONTH, "EUR").items());
+		assertEquals(new BigDecimal("25.00"),
+				analyticsService.getTypeBreakdown(ACCOUNT, FROM, TO, "EUR").items().get(1).total());
+	}
+
+	private static Transaction transaction(Account account, Type type, String amount, String currency, String bookedAt) {
+		return new Transaction(null, type, account, "Analytics", new BigDecimal(amount), currency, Instant.parse(bookedAt));
+	}
+}
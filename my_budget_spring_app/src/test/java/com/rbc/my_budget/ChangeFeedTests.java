@@ -0,0 +1,114 @@
+package com.rbc.my_budget;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.events.ChangeFeed;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionService;
+import com.rbc.my_budget.transaction.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * The change feed over a real async request: a fresh subscriber is told to reset, committed writes
+ * arrive with the new balance, and a reconnecting subscriber is replayed what it missed.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ChangeFeedTests {
+
+	private static final Pattern LAST_ID = Pattern.compile("(?s).*id:(\\S+)");
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private TransactionService transactionService;
+	@Autowired
+	private ChangeFeed changeFeed;
+
+	@BeforeEach
+	void setUp() {
+		if (!accountRepository.existsById("ChangeFeed"))
+			accountRepository.save(new Account("ChangeFeed", new BigDecimal("100.00"), "EUR"));
+	}
+
+	@Test
+	void subscriberReceivesCommittedChangesAndCatchesUpAfterReconnect() throws Exception {
+
+		MockHttpServletResponse first = subscribe(null);
+		awaitContent(first, "event:reset");
+		String resetId = lastId(first);
+
+		Transaction created = transactionService.createTransaction(new Transaction(null, Type.DEBIT,
+				new Account("ChangeFeed", null, null), "Change feed", new BigDecimal("25.00"), "EUR", null));
+
+		awaitContent(first, "event:transaction-created");
+		String content = first.getContentAsString();
+		assertTrue(content.contains("\"id\":" + created.getId()), content);
+		BigDecimal balance = accountRepository.findById("ChangeFeed").orElseThrow().getBalance();
+		assertTrue(content.contains("\"name\":\"ChangeFeed\",\"balance\":" + balance.toPlainString()), content);
+
+		MockHttpServletResponse reconnected = subscribe(resetId);
+		awaitContent(reconnected, "event:transaction-created");
+		assertFalse(reconnected.getContentAsString().contains("event:reset"));
+	}
+
+	@Test
+	void unknownLastEventIdGetsReset() throws Exception {
+
+		MockHttpServletResponse response = subscribe("stale-42");
+
+		awaitContent(response, "event:reset");
+	}
+
+	private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+		var request = get("/events");
+		if (lastEventId != null)
+			request.header("Last-Event-ID", lastEventId);
+
+		int subscribers = changeFeed.subscriberCount();
+		MockHttpServletResponse response = mockMvc.perform(request)
+				.andExpect(request().asyncStarted())
+				.andReturn().getResponse();
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (changeFeed.subscriberCount() == subscribers && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertEquals(subscribers + 1, changeFeed.subscriberCount());
+		return response;
+	}
+
+	private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < deadline) {
+			if (response.getContentAsString().contains(expected))
+				return;
+			Thread.sleep(10);
+		}
+		fail("Expected " + expected + " in " + response.getContentAsString());
+	}
+
+	private static String lastId(MockHttpServletResponse response) throws Exception {
+		Matcher matcher = LAST_ID.matcher(response.getContentAsString());
+		assertTrue(matcher.find());
+		return matcher.group(1);
+	}
+}
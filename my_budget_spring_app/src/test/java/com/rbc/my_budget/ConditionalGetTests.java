@@ -0,0 +1,86 @@
+package com.rbc.my_budget;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionService;
+import com.rbc.my_budget.transaction.Type;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs on the listings: a current tag is answered without touching the database, and
+ * writes move the tags.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private TransactionService transactionService;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void setUp() {
+		if (!accountRepository.existsById("ConditionalGet"))
+			accountRepository.save(new Account("ConditionalGet", BigDecimal.ZERO, "EUR"));
+	}
+
+	@Test
+	void currentTagIsNotModifiedWithoutQueries() throws Exception {
+
+		for (String url : new String[]{"/accounts", "/transactions", "/transactions/ConditionalGet"}) {
+			String etag = etag(url);
+
+			Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+			statistics.clear();
+
+			mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isNotModified())
+					.andExpect(content().string(""));
+
+			assertEquals(0, statistics.getPrepareStatementCount(), url);
+		}
+	}
+
+	@Test
+	void transactionWriteChangesAccountAndTransactionTags() throws Exception {
+
+		String accounts = etag("/accounts");
+		String transactions = etag("/transactions");
+
+		transactionService.createTransaction(new Transaction(null, Type.CREDIT, new Account("ConditionalGet", null, null),
+				"Conditional get", BigDecimal.TEN, "EUR", null));
+
+		assertNotEquals(accounts, etag("/accounts"));
+		assertNotEquals(transactions, etag("/transactions"));
+		mockMvc.perform(get("/accounts").header(HttpHeaders.IF_NONE_MATCH, accounts)).andExpect(status().isOk());
+	}
+
+	private String etag(String url) throws Exception {
+		return mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+}
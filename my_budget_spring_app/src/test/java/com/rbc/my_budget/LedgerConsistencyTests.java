@@ -0,0 +1,93 @@
+package com.rbc.my_budget;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountService;
+import com.rbc.my_budget.ledger.LedgerBalance;
+import com.rbc.my_budget.ledger.LedgerService;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionService;
+import com.rbc.my_budget.transaction.Type;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Snapshots cut while credits are being written must not miss an entry that commits after the cut,
+ * and the journal must agree with the balance column whenever it is read.
+ */
+@SpringBootTest
+class LedgerConsistencyTests {
+
+	private static final int WRITERS = 8;
+	private static final int CREDITS_PER_WRITER = 50;
+
+	@Autowired
+	private AccountService accountService;
+	@Autowired
+	private TransactionService transactionService;
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Test
+	void snapshotsAndReadsDuringConcurrentCreditsStayConsistent() throws Exception {
+
+		accountService.createAccount(new Account("LedgerBusy", BigDecimal.ZERO, "EUR"));
+		AtomicBoolean writing = new AtomicBoolean(true);
+		List<LedgerBalance> mismatches = new ArrayList<>();
+
+		ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+		try {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int i = 0; i < WRITERS; i++)
+				writers.add(executor.submit(() -> {
+					for (int j = 0; j < CREDITS_PER_WRITER; j++)
+						transactionService.createTransaction(credit("LedgerBusy"));
+					return null;
+				}));
+
+			Future<?> checker = executor.submit(() -> {
+				while (writing.get()) {
+					ledgerService.snapshot("LedgerBusy");
+					LedgerBalance balance = ledgerService.getBalance("LedgerBusy");
+					if (!balance.consistent())
+						mismatches.add(balance);
+				}
+				return null;
+			});
+
+			for (Future<?> writer : writers)
+				writer.get();
+			writing.set(false);
+			checker.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(List.of(), mismatches);
+
+		ledgerService.snapshot("LedgerBusy");
+		LedgerBalance balance = ledgerService.getBalance("LedgerBusy");
+		assertTrue(balance.consistent());
+		assertNotNull(balance.snapshotEntryId());
+		assertEquals(0, BigDecimal.valueOf(WRITERS * CREDITS_PER_WRITER).compareTo(balance.balance()));
+	}
+
+	private static Transaction credit(String accountName) {
+		Account account = new Account();
+		account.setName(accountName);
+		return new Transaction(null, Type.CREDIT, account, "Ledger credit", BigDecimal.ONE, "EUR", Instant.now());
+	}
+}
@@ -0,0 +1,74 @@
+package com.rbc.my_budget;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.monthly.MonthlyTotal;
+import com.rbc.my_budget.monthly.MonthlyTotalRepository;
+import com.rbc.my_budget.monthly.MonthlyTotalService;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionService;
+import com.rbc.my_budget.transaction.Type;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class MonthlyTotalsTests {
+
+	private static final String ACCOUNT = "MonthlyTotals";
+
+	@Autowired
+	private TransactionService transactionService;
+	@Autowired
+	private MonthlyTotalService monthlyTotalService;
+	@Autowired
+	private MonthlyTotalRepository monthlyTotalRepository;
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Test
+	void incrementalTotalsMatchRebuild() {
+
+		Account account = accountRepository.save(new Account(ACCOUNT, BigDecimal.ZERO, "EUR"));
+
+		Transaction salary = transactionService.createTransaction(transaction(account, Type.CREDIT, "2000.00", "2024-07-25T09:00:00Z"));
+		transactionService.createTransaction(transaction(account, Type.DEBIT, "15.40", "2024-07-26T18:30:00Z"));
+		Transaction groceries = transactionService.createTransaction(transaction(account, Type.DEBIT, "82.10", "2024-08-02T11:00:00Z"));
+		Transaction rent = transactionService.createTransaction(transaction(account, Type.DEBIT, "700.00", "2024-08-01T08:00:00Z"));
+
+		// Moves a debit into another month and turns the salary into a smaller amount.
+		transactionService.editTransaction(groceries.getId(), transaction(account, Type.DEBIT, "80.00", "2024-09-01T10:00:00Z"));
+		transactionService.editTransaction(salary.getId(), transaction(account, Type.CREDIT, "1900.00", null));
+		transactionService.deleteTransaction(rent.getId());
+
+		List<String> incremental = snapshot();
+		monthlyTotalService.rebuild();
+
+		assertEquals(snapshot(), incremental);
+		assertEquals(List.of(
+				"2024-07-01 CREDIT EUR 1900.00 x1",
+				"2024-07-01 DEBIT EUR 15.40 x1",
+				"2024-09-01 DEBIT EUR 80.00 x1"), incremental);
+	}
+
+	private List<String> snapshot() {
+		return monthlyTotalRepository.findAll().stream()
+				.filter(total -> ACCOUNT.equals(total.getAccountName()))
+				.sorted(Comparator.comparing(MonthlyTotal::getMonthStart).thenComparing(MonthlyTotal::getType))
+				.map(total -> total.getMonthStart() + " " + total.getType() + " " + total.getCurrency() + " "
+						+ total.getTotal().setScale(2) + " x" + total.getEntries())
+				.toList();
+	}
+
+	private static Transaction transaction(Account account, Type type, String amount, String bookedAt) {
+		return new Transaction(null, type, account, "Monthly", new BigDecimal(amount), "EUR",
+				bookedAt == null ? null : Instant.parse(bookedAt));
+	}
+}
@@ -0,0 +1,157 @@
+package com.rbc.my_budget;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountService;
+import com.rbc.my_budget.account.AccountView;
+import com.rbc.my_budget.exception.AccountCannotBeDeletedException;
+import com.rbc.my_budget.ledger.LedgerService;
+import com.rbc.my_budget.sync.ChangeSet;
+import com.rbc.my_budget.sync.SyncService;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionService;
+import com.rbc.my_budget.transaction.TransactionView;
+import com.rbc.my_budget.transaction.Type;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Delta sync: a client holding a cursor gets back only what changed after it, in pages, with
+ * tombstones for what was deleted.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SyncTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private SyncService syncService;
+	@Autowired
+	private AccountService accountService;
+	@Autowired
+	private TransactionService transactionService;
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Test
+	void changesSinceCursorAreOnlyTheLaterOnes() {
+
+		accountService.createAccount(new Account("SyncDelta", BigDecimal.ZERO, "EUR"));
+		String transactions = drain(since -> syncService.getTransactionChanges(since, null, null));
+		String accounts = drain(since -> syncService.getAccountChanges(since, null, null));
+
+		Transaction kept = transactionService.createTransaction(transaction("SyncDelta", Type.CREDIT, "10.00"));
+		Transaction edited = transactionService.createTransaction(transaction("SyncDelta", Type.CREDIT, "20.00"));
+		Transaction deleted = transactionService.createTransaction(transaction("SyncDelta", Type.DEBIT, "5.00"));
+		transactionService.editTransaction(edited.getId(), transaction("SyncDelta", Type.CREDIT, "25.00"));
+		transactionService.deleteTransaction(deleted.getId());
+
+		ChangeSet<TransactionView, Long> transactionChanges = syncService.getTransactionChanges(transactions, null, "EUR");
+		assertEquals(List.of(kept.getId(), edited.getId()), transactionChanges.changed().stream().map(TransactionView::id).toList());
+		assertEquals(0, new BigDecimal("25.00").compareTo(transactionChanges.changed().get(1).amount()));
+		assertEquals(List.of(deleted.getId()), transactionChanges.deleted());
+		assertFalse(transactionChanges.hasMore());
+
+		ChangeSet<AccountView, String> accountChanges = syncService.getAccountChanges(accounts, null, null);
+		assertEquals(List.of("SyncDelta"), accountChanges.changed().stream().map(AccountView::name).toList());
+		assertEquals(0, new BigDecimal("35.00").compareTo(accountChanges.changed().get(0).balance()));
+
+		assertTrue(syncService.getTransactionChanges(transactionChanges.cursor(), null, null).changed().isEmpty());
+	}
+
+	@Test
+	void changesArePagedWithoutGapsOrRepeats() {
+
+		accountService.createAccount(new Account("SyncPaged", BigDecimal.ZERO, "EUR"));
+		String cursor = drain(since -> syncService.getTransactionChanges(since, null, null));
+
+		Set<Long> created = new HashSet<>();
+		for (int i = 0; i < 5; i++)
+			created.add(transactionService.createTransaction(transaction("SyncPaged", Type.CREDIT, "1.00")).getId());
+
+		List<Long> seen = new ArrayList<>();
+		ChangeSet<TransactionView, Long> page;
+		do {
+			page = syncService.getTransactionChanges(cursor, 2, null);
+			assertTrue(page.changed().size() <= 2);
+			page.changed().forEach(transaction -> seen.add(transaction.id()));
+			cursor = page.cursor();
+		} while (page.hasMore());
+
+		assertEquals(5, seen.size());
+		assertEquals(created, new HashSet<>(seen));
+	}
+
+	@Test
+	void bulkAndAccountDeletesLeaveTombstones() {
+
+		accountService.createAccount(new Account("SyncBulk", BigDecimal.ZERO, "EUR"));
+		Transaction credit = transactionService.createTransaction(transaction("SyncBulk", Type.CREDIT, "10.00"));
+		Transaction debit = transactionService.createTransaction(transaction("SyncBulk", Type.DEBIT, "4.00"));
+		String transactions = drain(since -> syncService.getTransactionChanges(since, null, null));
+
+		transactionService.deleteTransactions("SyncBulk", Type.DEBIT);
+
+		assertEquals(List.of(debit.getId()), syncService.getTransactionChanges(transactions, null, null).deleted());
+
+		transactionService.deleteTransaction(credit.getId());
+		String accounts = drain(since -> syncService.getAccountChanges(since, null, null));
+		accountService.deleteAccount("SyncBulk");
+
+		ChangeSet<AccountView, String> accountChanges = syncService.getAccountChanges(accounts, null, null);
+		assertTrue(accountChanges.changed().isEmpty());
+		assertEquals(List.of("SyncBulk"), accountChanges.deleted());
+	}
+
+	@Test
+	void refusedAccountDeleteLeavesNoTombstoneOrJournalEntry() {
+
+		accountService.createAccount(new Account("SyncKept", BigDecimal.ZERO, "EUR"));
+		transactionService.createTransaction(transaction("SyncKept", Type.CREDIT, "10.00"));
+		String accounts = drain(since -> syncService.getAccountChanges(since, null, null));
+
+		assertThrows(AccountCannotBeDeletedException.class, () -> accountService.deleteAccount("SyncKept"));
+
+		assertTrue(syncService.getAccountChanges(accounts, null, null).deleted().isEmpty());
+		assertTrue(ledgerService.getBalance("SyncKept").consistent());
+	}
+
+	@Test
+	void invalidCursorIsRejected() throws Exception {
+
+		mockMvc.perform(get("/transactions/changes").param("since", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/accounts/changes"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.cursor").isString());
+	}
+
+	private static <T, K> String drain(Function<String, ChangeSet<T, K>> changes) {
+		ChangeSet<T, K> page = changes.apply(null);
+		while (page.hasMore())
+			page = changes.apply(page.cursor());
+		return page.cursor();
+	}
+
+	private static Transaction transaction(String accountName, Type type, String amount) {
+		return new Transaction(null, type, new Account(accountName, null, null), "Sync", new BigDecimal(amount), "EUR", null);
+	}
+}
@@ -0,0 +1,136 @@
+package com.rbc.my_budget;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the same blocking HTTP workload (a write, a converted account read and a page read per round)
+ * against the application on Tomcat's platform-thread pool and on virtual threads, and logs throughput
+ * and p99 latency for both. The platform pool is kept smaller than the number of clients so the
+ * comparison shows what the pool cap costs.
+ * <p>
+ * The regular build only checks that no write is lost under either mode; the timed comparison runs
+ * with {@code -Dbenchmark=true}.
+ */
+class ThreadingModeBenchmarkTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(ThreadingModeBenchmarkTests.class);
+	private static final int CLIENTS = 64;
+	private static final int ROUNDS_PER_CLIENT = 10;
+	private static final int PLATFORM_POOL_SIZE = 16;
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.build();
+
+	@Test
+	void noWriteIsLostUnderEitherThreadingMode() throws Exception {
+		run(false, CLIENTS / 4, false);
+		run(true, CLIENTS / 4, false);
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void platformAndVirtualThreadsServeTheSameWorkload() throws Exception {
+
+		Result platform = run(false, CLIENTS, true);
+		Result virtual = run(true, CLIENTS, true);
+
+		logger.info("{} clients x {} rounds: platform threads (max {}) {} req/s, p99 {} ms; virtual threads {} req/s, p99 {} ms",
+				CLIENTS, ROUNDS_PER_CLIENT, PLATFORM_POOL_SIZE,
+				platform.throughput(), platform.p99Millis(), virtual.throughput(), virtual.p99Millis());
+	}
+
+	private Result run(boolean virtualThreads, int clients, boolean warmUp) throws Exception {
+
+		String mode = virtualThreads ? "virtual" : "platform";
+		// Arguments rather than default properties, so they win over application.properties; the other
+		// test contexts share that file's database and must not see this one's create-drop.
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MyBudgetApplication.class).run(
+				"--server.port=0",
+				"--spring.threads.virtual.enabled=" + virtualThreads,
+				"--server.tomcat.threads.max=" + PLATFORM_POOL_SIZE,
+				"--spring.datasource.url=jdbc:h2:mem:benchmark_" + mode + ";LOCK_TIMEOUT=10000")) {
+
+			AccountService accountService = context.getBean(AccountService.class);
+			accountService.createAccount(new Account("Benchmark", BigDecimal.ZERO, "EUR"));
+			String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+			// Warm up so neither mode pays for JIT compilation and pool start-up in its measurement.
+			if (warmUp)
+				workload(base, CLIENTS / 4);
+			BigDecimal warmUpBalance = accountService.getAccount("Benchmark").balance();
+
+			long start = System.nanoTime();
+			List<Long> latencies = workload(base, clients);
+			long elapsed = System.nanoTime() - start;
+
+			// Every round credits 1.00; nothing may be lost under either threading mode.
+			BigDecimal expected = warmUpBalance.add(BigDecimal.valueOf((long) clients * ROUNDS_PER_CLIENT));
+			assertEquals(0, expected.compareTo(accountService.getAccount("Benchmark").balance()), mode);
+
+			Collections.sort(latencies);
+			long p99 = latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+			return new Result(latencies.size() * 1_000_000_000L / elapsed, p99 / 1_000_000);
+		}
+	}
+
+	private List<Long> workload(String base, int clients) throws Exception {
+
+		HttpRequest credit = HttpRequest.newBuilder(URI.create(base + "/transactions"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("""
+						{"type":"CREDIT","account":{"name":"Benchmark"},"description":"Benchmark","amount":1.00,"currency":"EUR"}"""))
+				.build();
+		HttpRequest accounts = HttpRequest.newBuilder(URI.create(base + "/accounts?currency=USD")).build();
+		HttpRequest page = HttpRequest.newBuilder(URI.create(base + "/transactions/Benchmark?size=20")).build();
+
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int c = 0; c < clients; c++)
+				futures.add(executor.submit(() -> {
+					for (int r = 0; r < ROUNDS_PER_CLIENT; r++)
+						for (HttpRequest request : List.of(credit, accounts, page))
+							latencies.add(send(request));
+					return null;
+				}));
+			for (Future<?> future : futures)
+				future.get();
+		}
+		return latencies;
+	}
+
+	private long send(HttpRequest request) throws Exception {
+		long start = System.nanoTime();
+		HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+		long elapsed = System.nanoTime() - start;
+		assertTrue(response.statusCode() / 100 == 2, request.uri() + " returned " + response.statusCode());
+		return elapsed;
+	}
+
+	private record Result(long throughput, long p99Millis) {
+	}
+}
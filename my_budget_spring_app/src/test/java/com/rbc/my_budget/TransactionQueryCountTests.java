@@ -0,0 +1,81 @@
+package com.rbc.my_budget;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionRepository;
+import com.rbc.my_budget.transaction.Type;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budget for the transaction listings: each costs one query however many accounts the
+ * rows belong to.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionQueryCountTests {
+
+	private static final int ACCOUNTS = 5;
+	private static final int TRANSACTIONS_PER_ACCOUNT = 20;
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private TransactionRepository transactionRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void setUp() {
+
+		if (accountRepository.existsById("QueryCount0"))
+			return;
+
+		List<Transaction> transactions = new ArrayList<>();
+		for (int a = 0; a < ACCOUNTS; a++) {
+			Account account = accountRepository.save(new Account("QueryCount" + a, BigDecimal.ZERO, "EUR"));
+			for (int t = 0; t < TRANSACTIONS_PER_ACCOUNT; t++)
+				transactions.add(new Transaction(null, Type.DEBIT, account, "Query count", BigDecimal.ONE, "EUR", Instant.now()));
+		}
+		transactionRepository.insertAll(transactions);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"/transactions",
+			"/transactions/QueryCount1",
+			"/transactions?size=200",
+			"/transactions/QueryCount1?size=200",
+			"/transactions/search?size=200",
+			"/transactions/search?account=QueryCount1&type=DEBIT&size=200"
+	})
+	void listingCostsOneStatement(String url) throws Exception {
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(get(url)).andExpect(status().isOk());
+
+		assertEquals(1, statistics.getPrepareStatementCount(), url);
+	}
+}
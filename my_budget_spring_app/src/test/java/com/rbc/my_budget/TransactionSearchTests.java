@@ -0,0 +1,128 @@
+package com.rbc.my_budget;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.transaction.BookedAtMigration;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionFilter;
+import com.rbc.my_budget.transaction.TransactionPage;
+import com.rbc.my_budget.transaction.TransactionRepository;
+import com.rbc.my_budget.transaction.TransactionService;
+import com.rbc.my_budget.transaction.TransactionView;
+import com.rbc.my_budget.transaction.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TransactionSearchTests {
+
+	private static final String ACCOUNT = "SearchHistory";
+	private static final LocalDate FIRST_DAY = LocalDate.of(2021, 1, 1);
+	private static final int DAYS = 3 * 365;
+
+	@Autowired
+	private TransactionService transactionService;
+	@Autowired
+	private AccountRepository accountRepository;
+	@Autowired
+	private TransactionRepository transactionRepository;
+	@Autowired
+	private BookedAtMigration bookedAtMigration;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+
+		if (accountRepository.existsById(ACCOUNT))
+			return;
+
+		Account account = accountRepository.save(new Account(ACCOUNT, BigDecimal.ZERO, "EUR"));
+		List<Transaction> history = new ArrayList<>();
+
+		// One credit and one debit every day for three years, with amounts cycling through 1..40.
+		for (int day = 0; day < DAYS; day++) {
+			Instant bookedAt = FIRST_DAY.plusDays(day).atStartOfDay(ZoneOffset.UTC).toInstant().plus(12, ChronoUnit.HOURS);
+			history.add(new Transaction(null, Type.CREDIT, account, "Daily credit", BigDecimal.valueOf(day % 40 + 1), "EUR", bookedAt));
+			history.add(new Transaction(null, Type.DEBIT, account, "Daily debit", BigDecimal.valueOf((day + 20) % 40 + 1), "EUR", bookedAt));
+		}
+		transactionRepository.insertAll(history);
+	}
+
+	@Test
+	void searchReturnsOnlyMatchingRowsInsideTheWindow() {
+
+		Instant from = LocalDate.of(2022, 6, 1).atStartOfDay(ZoneOffset.UTC).toInstant();
+		Instant before = LocalDate.of(2022, 7, 1).atStartOfDay(ZoneOffset.UTC).toInstant();
+		TransactionFilter filter = new TransactionFilter(ACCOUNT, Type.DEBIT, from, before, BigDecimal.TEN, BigDecimal.valueOf(30));
+
+		List<TransactionView> found = new ArrayList<>();
+		String cursor = null;
+		do {
+			TransactionPage page = transactionService.searchTransactions(filter, cursor, 7, null);
+			found.addAll(page.items());
+			cursor = page.nextCursor();
+		} while (cursor != null);
+
+		List<TransactionView> expected = transactionRepository.findViewsByAccountName(ACCOUNT).stream()
+				.filter(t -> t.type() == Type.DEBIT)
+				.filter(t -> !t.bookedAt().isBefore(from) && t.bookedAt().isBefore(before))
+				.filter(t -> t.amount().compareTo(BigDecimal.TEN) >= 0 && t.amount().compareTo(BigDecimal.valueOf(30)) <= 0)
+				.sorted(Comparator.comparing(TransactionView::bookedAt).thenComparing(TransactionView::id).reversed())
+				.toList();
+
+		assertTrue(expected.size() > 7);
+		assertEquals(expected.stream().map(TransactionView::id).toList(), found.stream().map(TransactionView::id).toList());
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+
+		Instant from = LocalDate.of(2023, 12, 31).atStartOfDay(ZoneOffset.UTC).toInstant();
+		TransactionPage page = transactionService.searchTransactions(
+				new TransactionFilter(ACCOUNT, null, from, null, null, null), null, 50, null);
+
+		assertEquals(2, page.items().size());
+		assertNull(page.nextCursor());
+	}
+
+	@Test
+	void rowsFromBeforeBookingTimesAreBackfilledAndTheColumnTightened() {
+
+		accountRepository.save(new Account("LegacyBooking", BigDecimal.ZERO, "EUR"));
+		String insertLegacy = "insert into transaction (type, account_name, description, amount, currency) " +
+				"values ('CREDIT', 'LegacyBooking', 'Legacy', 1.00, 'EUR')";
+		try {
+			// A database from before booked_at existed: the column was added nullable and has no values.
+			jdbcTemplate.execute("alter table transaction alter column booked_at set null");
+			jdbcTemplate.update(insertLegacy);
+
+			bookedAtMigration.migrate();
+
+			assertNotNull(transactionRepository.findViewsByAccountName("LegacyBooking").get(0).bookedAt());
+			assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(insertLegacy));
+		} finally {
+			jdbcTemplate.update("delete from transaction where account_name = 'LegacyBooking'");
+			accountRepository.deleteById("LegacyBooking");
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.rbc.my_budget.unit.account;
+
+import com.rbc.my_budget.account.AccountCache;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.account.AccountView;
+import com.rbc.my_budget.account.AccountsChangedEvent;
+import com.rbc.my_budget.transaction.TransactionsChangedEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class AccountCacheTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountCache accountCache;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        accountCache = new AccountCache(accountRepository, 2);
+        when(accountRepository.findViewByName(anyString())).thenAnswer(invocation ->
+                Optional.of(new AccountView(invocation.getArgument(0), new BigDecimal("10.00"), "EUR", 0L)));
+    }
+
+    @Test
+    public void test_second_lookup_is_served_from_cache() {
+
+        accountCache.get("Wallet");
+        assertEquals("Wallet", accountCache.get("Wallet").orElseThrow().name());
+
+        verify(accountRepository, times(1)).findViewByName("Wallet");
+        assertEquals(1, accountCache.getStats().hits());
+        assertEquals(1, accountCache.getStats().misses());
+        assertEquals(0.5, accountCache.getStats().hitRatio(), 0.0001);
+    }
+
+    @Test
+    public void test_balance_change_drops_only_touched_accounts() {
+
+        accountCache.get("Wallet");
+        accountCache.get("Savings");
+        accountCache.onTransactionsChanged(TransactionsChangedEvent.of("wallet"));
+        accountCache.get("Wallet");
+        accountCache.get("Savings");
+
+        verify(accountRepository, times(2)).findViewByName("Wallet");
+        verify(accountRepository, times(1)).findViewByName("Savings");
+    }
+
+    @Test
+    public void test_account_change_for_any_account_clears_cache() {
+
+        accountCache.get("Wallet");
+        accountCache.onAccountsChanged(new AccountsChangedEvent(null));
+
+        assertEquals(0, accountCache.getStats().size());
+        assertEquals(1, accountCache.getStats().invalidations());
+    }
+
+    @Test
+    public void test_view_loaded_across_invalidation_is_not_stored() {
+
+        when(accountRepository.findViewByName("Wallet")).thenAnswer(invocation -> {
+            accountCache.onTransactionsChanged(TransactionsChangedEvent.of("Wallet"));
+            return Optional.of(new AccountView("Wallet", BigDecimal.ONE, "EUR", 0L));
+        });
+
+        accountCache.get("Wallet");
+
+        assertEquals(0, accountCache.getStats().size());
+    }
+
+    @Test
+    public void test_missing_account_is_not_cached() {
+
+        when(accountRepository.findViewByName("Gone")).thenReturn(Optional.empty());
+
+        assertTrue(accountCache.get("Gone").isEmpty());
+        accountCache.get("Gone");
+
+        verify(accountRepository, times(2)).findViewByName("Gone");
+    }
+
+    @Test
+    public void test_least_recently_used_account_is_evicted() {
+
+        accountCache.get("Wallet");
+        accountCache.get("Savings");
+        accountCache.get("Wallet");
+        accountCache.get("Card");
+
+        assertEquals(2, accountCache.getStats().size());
+        assertEquals(1, accountCache.getStats().evictions());
+
+        accountCache.get("Wallet");
+        verify(accountRepository, times(1)).findViewByName("Wallet");
+    }
+}
@@ -3,21 +3,28 @@ package com.rbc.my_budget.unit.account;
 import com.rbc.my_budget.account.Account;
 import com.rbc.my_budget.account.AccountController;
 import com.rbc.my_budget.account.AccountService;
+import com.rbc.my_budget.account.AccountView;
+import com.rbc.my_budget.currency.ExchangeRateCache;
+import com.rbc.my_budget.currency.ExchangeRateHistory;
+import com.rbc.my_budget.etag.ResourceVersions;
 import com.rbc.my_budget.exception.AccountAlreadyExistsException;
 import com.rbc.my_budget.exception.AccountCannotBeDeletedException;
 import com.rbc.my_budget.exception.NotFoundException;
 import com.rbc.my_budget.transaction.Transaction;
 import com.rbc.my_budget.transaction.TransactionService;
+import com.rbc.my_budget.transaction.TransactionView;
 import com.rbc.my_budget.transaction.Type;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.util.List;
 import java.util.Objects;
 
@@ -36,6 +43,9 @@ public class AccountControllerTest {
     @Mock
     private TransactionService transactionService;
 
+    @Spy
+    private ResourceVersions resourceVersions = new ResourceVersions(mock(ExchangeRateHistory.class), mock(ExchangeRateCache.class), Clock.systemUTC());
+
 
     @Before
     public void setUp() {
@@ -44,38 +54,50 @@ public class AccountControllerTest {
 
     @Test
     public void test_retrieve_all_accounts_successfully() {
-        List<Account> accounts = List.of(
-                new Account("Account1", new BigDecimal("100.00"), "USD", null),
-                new Account("Account2", new BigDecimal("200.00"), "USD", null)
+        List<AccountView> accounts = List.of(
+                new AccountView("Account1", new BigDecimal("100.00"), "USD", null),
+                new AccountView("Account2", new BigDecimal("200.00"), "USD", null)
         );
-        when(accountService.getAllAccounts()).thenReturn(accounts);
+        when(accountService.getAllAccounts(null)).thenReturn(accounts);
 
-        ResponseEntity<List<Account>> response = accountController.getAllAccounts();
+        ResponseEntity<List<AccountView>> response = accountController.getAllAccounts(null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(2, Objects.requireNonNull(response.getBody()).size());
-        verify(accountService, times(1)).getAllAccounts();
+        verify(accountService, times(1)).getAllAccounts(null);
     }
 
     @Test
     public void test_retrieve_specific_account_by_name_success() {
         String accountName = "TestAccount";
-        Account testAccount = new Account(accountName, new BigDecimal("500.00"), "EUR");
+        AccountView testAccount = new AccountView(accountName, new BigDecimal("500.00"), "EUR", 0L);
         when(accountService.getAccount(accountName)).thenReturn(testAccount);
 
-        ResponseEntity<Account> response = accountController.getAccount(accountName);
+        ResponseEntity<AccountView> response = accountController.getAccount(accountName, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(testAccount, response.getBody());
     }
 
+    @Test
+    public void test_retrieve_accounts_with_current_etag_is_not_modified() {
+
+        String etag = accountController.getAllAccounts(null, null).getHeaders().getETag();
+
+        ResponseEntity<List<AccountView>> response = accountController.getAllAccounts(null, etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        verify(accountService, times(1)).getAllAccounts(null);
+    }
+
     @Test
     public void test_retrieve_non_existent_account_by_name() {
         String nonExistentAccountName = "NonExistentAccount";
         when(accountService.getAccount(nonExistentAccountName))
                 .thenThrow(new NotFoundException(Account.class, nonExistentAccountName));
 
-        assertThrows(NotFoundException.class, () -> accountController.getAccount(nonExistentAccountName));
+        assertThrows(NotFoundException.class, () -> accountController.getAccount(nonExistentAccountName, null));
         verify(accountService, times(1)).getAccount(nonExistentAccountName);
     }
 
@@ -85,10 +107,10 @@ public class AccountControllerTest {
         Account newAccount = new Account("NewAccount", new BigDecimal("500.00"), "EUR");
         when(accountService.createAccount(newAccount)).thenReturn(newAccount);
 
-        ResponseEntity<Account> response = accountController.createAccount(newAccount);
+        ResponseEntity<AccountView> response = accountController.createAccount(newAccount);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
-        assertEquals(newAccount, response.getBody());
+        assertEquals(AccountView.of(newAccount), response.getBody());
     }
 
     @Test
@@ -107,13 +129,13 @@ public class AccountControllerTest {
         Account existingAccount = new Account(accountName, new BigDecimal("500.00"), "USD");
         Account updatedAccount = new Account(accountName, new BigDecimal("700.00"), "EUR");
 
-        when(accountService.getAccount(accountName)).thenReturn(existingAccount);
+        when(accountService.getAccount(accountName)).thenReturn(AccountView.of(existingAccount));
         when(accountService.editAccount(eq(accountName), any(Account.class))).thenReturn(updatedAccount);
 
-        ResponseEntity<Account> response = accountController.updateAccount(accountName, updatedAccount);
+        ResponseEntity<AccountView> response = accountController.updateAccount(accountName, updatedAccount);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(updatedAccount, response.getBody());
+        assertEquals(AccountView.of(updatedAccount), response.getBody());
     }
 
     @Test
@@ -134,7 +156,7 @@ public class AccountControllerTest {
 
         String accountName = "TestAccount";
         Account account = new Account(accountName, new BigDecimal("500.00"), "USD");
-        when(accountService.getAccount(accountName)).thenReturn(account);
+        when(accountService.getAccount(accountName)).thenReturn(AccountView.of(account));
 
         ResponseEntity<?> response = accountController.deleteAccount(accountName);
 
@@ -157,10 +179,10 @@ public class AccountControllerTest {
 
         String accountName = "TestAccount";
         Account account = new Account(accountName, new BigDecimal("500.00"), "USD");
-        when(accountService.getAccount(accountName)).thenReturn(account);
+        when(accountService.getAccount(accountName)).thenReturn(AccountView.of(account));
 
-        Transaction transaction = new Transaction(3L, Type.DEBIT, account, "Test description", new BigDecimal(300), "EUR");
-        when(transactionService.getTransaction(3L)).thenReturn(transaction);
+        Transaction transaction = new Transaction(3L, Type.DEBIT, account, "Test description", new BigDecimal(300), "EUR", null);
+        when(transactionService.getTransaction(3L)).thenReturn(TransactionView.of(transaction));
         doThrow(AccountCannotBeDeletedException.class).when(accountService).deleteAccount(accountName);
 
         assertThrows(AccountCannotBeDeletedException.class, () -> accountController.deleteAccount(accountName));
@@ -1,11 +1,21 @@
 package com.rbc.my_budget.unit.account;
 
 import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountCache;
+import com.rbc.my_budget.account.AccountCurrencyTotal;
 import com.rbc.my_budget.account.AccountRepository;
 import com.rbc.my_budget.account.AccountService;
+import com.rbc.my_budget.account.AccountSummary;
+import com.rbc.my_budget.account.AccountView;
+import com.rbc.my_budget.account.AccountsChangedEvent;
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.currency.RateMatrix;
 import com.rbc.my_budget.exception.AccountAlreadyExistsException;
 import com.rbc.my_budget.exception.AccountCannotBeDeletedException;
 import com.rbc.my_budget.exception.NotFoundException;
+import com.rbc.my_budget.ledger.LedgerEventType;
+import com.rbc.my_budget.ledger.LedgerService;
+import com.rbc.my_budget.sync.ChangeTracker;
 import com.rbc.my_budget.transaction.Transaction;
 import com.rbc.my_budget.transaction.TransactionRepository;
 import com.rbc.my_budget.transaction.Type;
@@ -16,10 +26,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
@@ -34,6 +47,21 @@ public class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private CurrencyService currencyService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private AccountCache accountCache;
+
     @Before
     public void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -42,32 +70,70 @@ public class AccountServiceTest {
     @Test
     public void test_retrieve_all_accounts_successfully() {
 
-        List<Account> accounts = List.of(
-            new Account("Account1", new BigDecimal("100.00"), "USD"),
-            new Account("Account2", new BigDecimal("200.00"), "EUR")
+        List<AccountView> accounts = List.of(
+            new AccountView("Account1", new BigDecimal("100.00"), "USD", 0L),
+            new AccountView("Account2", new BigDecimal("200.00"), "EUR", 0L)
         );
     
-        when(accountRepository.findAll()).thenReturn(accounts);
+        when(accountRepository.findAllViews()).thenReturn(accounts);
     
-        List<Account> result = accountService.getAllAccounts();
+        List<AccountView> result = accountService.getAllAccounts();
     
         Assertions.assertEquals(2, result.size());
-        Assertions.assertEquals("Account1", result.get(0).getName());
-        Assertions.assertEquals("Account2", result.get(1).getName());
+        Assertions.assertEquals("Account1", result.get(0).name());
+        Assertions.assertEquals("Account2", result.get(1).name());
+        verify(accountRepository, never()).findAll();
+    }
+
+    @Test
+    public void test_retrieve_all_accounts_in_default_currency() {
+
+        List<AccountView> accounts = List.of(
+            new AccountView("Account1", new BigDecimal("100.00"), "USD", 0L),
+            new AccountView("Account2", new BigDecimal("200.00"), "EUR", 0L)
+        );
+
+        when(accountRepository.findAllViews()).thenReturn(accounts);
+        when(currencyService.getLatestRateMatrix("EUR")).thenReturn(rates());
+
+        List<AccountView> result = accountService.getAllAccounts("EUR");
+
+        Assertions.assertEquals(new BigDecimal("80.00"), result.get(0).balanceInDefaultCurrency());
+        Assertions.assertEquals(new BigDecimal("200.00"), result.get(1).balanceInDefaultCurrency());
+        Assertions.assertEquals(new BigDecimal("100.00"), result.get(0).balance());
+    }
+
+    @Test
+    public void test_account_summary_sums_converted_currency_totals() {
+
+        List<AccountCurrencyTotal> totals = List.of(
+            total("USD", new BigDecimal("150.00"), 2),
+            total("EUR", new BigDecimal("100.00"), 1)
+        );
+
+        when(accountRepository.sumBalancesByCurrency()).thenReturn(totals);
+        when(currencyService.getLatestRateMatrix("eur")).thenReturn(rates());
+
+        AccountSummary summary = accountService.getAccountSummary("eur");
+
+        Assertions.assertEquals("EUR", summary.currency());
+        Assertions.assertEquals(new BigDecimal("220.00"), summary.total());
+        Assertions.assertEquals(3, summary.accounts());
+        Assertions.assertEquals("2024-08-01", summary.ratesDate());
     }
 
     @Test
     public void test_retrieve_specific_account_successfully() {
 
-        Account testAccount = new Account("TestAccount", new BigDecimal("500.00"), "CAD");
+        AccountView testAccount = new AccountView("TestAccount", new BigDecimal("500.00"), "CAD", 0L);
 
-        when(accountRepository.findById("TestAccount")).thenReturn(Optional.of(testAccount));
+        when(accountCache.get("TestAccount")).thenReturn(Optional.of(testAccount));
 
-        Account result = accountService.getAccount("TestAccount");
+        AccountView result = accountService.getAccount("TestAccount");
 
-        Assertions.assertEquals("TestAccount", result.getName());
-        Assertions.assertEquals(new BigDecimal("500.00"), result.getBalance());
-        Assertions.assertEquals("CAD", result.getCurrency());
+        Assertions.assertEquals("TestAccount", result.name());
+        Assertions.assertEquals(new BigDecimal("500.00"), result.balance());
+        Assertions.assertEquals("CAD", result.currency());
     }
 
     @Test
@@ -97,6 +163,7 @@ public class AccountServiceTest {
         verify(accountRepository, times(1)).save(newAccount);
 
         verify(accountRepository, times(1)).existsById(newAccount.getName());
+        verify(eventPublisher, times(1)).publishEvent(new AccountsChangedEvent("TestAccount"));
 
         Assertions.assertNotNull(createdAccount);
         Assertions.assertEquals("TestAccount", createdAccount.getName());
@@ -108,7 +175,7 @@ public class AccountServiceTest {
     public void test_attempt_create_existing_account() {
 
         AccountRepository accountRepository = Mockito.mock(AccountRepository.class);
-        AccountService accountService = new AccountService(accountRepository);
+        AccountService accountService = new AccountService(accountRepository, accountCache, currencyService, ledgerService, eventPublisher, changeTracker);
 
         Account existingAccount = new Account("ExistingAccount", new BigDecimal("500.00"), "CAD");
 
@@ -133,12 +200,29 @@ public class AccountServiceTest {
         Assertions.assertEquals(accountName, result.getName());
         Assertions.assertEquals(new BigDecimal("700.00"), result.getBalance());
         Assertions.assertEquals("EUR", result.getCurrency());
+        verify(ledgerService).record(accountName, LedgerEventType.ADJUSTMENT, null, new BigDecimal("200.00"));
+    }
+
+    @Test
+    public void test_edit_account_with_stale_version_is_rejected() {
+
+        String accountName = "TestAccount";
+        Account existingAccount = new Account(accountName, new BigDecimal("500.00"), "USD");
+        existingAccount.setVersion(4L);
+        Account updatedAccount = new Account(accountName, new BigDecimal("700.00"), "EUR");
+        updatedAccount.setVersion(3L);
+
+        when(accountRepository.findById(accountName)).thenReturn(Optional.of(existingAccount));
+
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class, () -> accountService.editAccount(accountName, updatedAccount));
+        verify(accountRepository, never()).save(any());
+        Assertions.assertEquals(new BigDecimal("500.00"), existingAccount.getBalance());
     }
 
     @Test
     public void test_edit_non_existent_account() {
         AccountRepository accountRepository = Mockito.mock(AccountRepository.class);
-        AccountService accountService = new AccountService(accountRepository);
+        AccountService accountService = new AccountService(accountRepository, accountCache, currencyService, ledgerService, eventPublisher, changeTracker);
 
         String nonExistentAccountName = "NonExistentAccount";
         Account updatedAccount = new Account("NonExistentAccount", new BigDecimal("500.00"), "EUR");
@@ -164,7 +248,7 @@ public class AccountServiceTest {
     @Test
     public void test_delete_non_existent_account() {
         AccountRepository accountRepository = Mockito.mock(AccountRepository.class);
-        AccountService accountService = new AccountService(accountRepository);
+        AccountService accountService = new AccountService(accountRepository, accountCache, currencyService, ledgerService, eventPublisher, changeTracker);
 
         String nonExistentAccountName = "NonExistentAccount";
 
@@ -180,7 +264,7 @@ public class AccountServiceTest {
 
         String accountName = "TestAccount";
         Account account = new Account(accountName, new BigDecimal("100.00"), "USD");
-        Transaction transaction = new Transaction(1L, Type.CREDIT, account, "Test desc", new BigDecimal("50.00"), "USD");
+        Transaction transaction = new Transaction(1L, Type.CREDIT, account, "Test desc", new BigDecimal("50.00"), "USD", null);
         TransactionRepository transactionRepository = mock(TransactionRepository.class);
 
         when(accountRepository.findById(accountName)).thenReturn(Optional.of(account));
@@ -235,4 +319,15 @@ public class AccountServiceTest {
         Assertions.assertDoesNotThrow(() -> accountService.createAccount(finalNewAccount3));
     }
 
-}
\ No newline at end of file
+    private static RateMatrix rates() {
+        return RateMatrix.of("eur", "2024-08-01", Map.of("usd", new BigDecimal("1.25")));
+    }
+
+    private static AccountCurrencyTotal total(String currency, BigDecimal total, long accounts) {
+        AccountCurrencyTotal currencyTotal = mock(AccountCurrencyTotal.class);
+        when(currencyTotal.getCurrency()).thenReturn(currency);
+        when(currencyTotal.getTotal()).thenReturn(total);
+        when(currencyTotal.getAccounts()).thenReturn(accounts);
+        return currencyTotal;
+    }
+}
@@ -0,0 +1,187 @@
+package com.rbc.my_budget.unit.analytics;
+
+import com.rbc.my_budget.analytics.AnalyticsCache;
+import com.rbc.my_budget.analytics.AnalyticsReport;
+import com.rbc.my_budget.analytics.AnalyticsRepository;
+import com.rbc.my_budget.analytics.AnalyticsService;
+import com.rbc.my_budget.analytics.BookedFlow;
+import com.rbc.my_budget.analytics.DescriptionCurrencyTotal;
+import com.rbc.my_budget.analytics.DescriptionTotal;
+import com.rbc.my_budget.analytics.FlowPeriod;
+import com.rbc.my_budget.analytics.PeriodFlow;
+import com.rbc.my_budget.analytics.TypeCurrencyTotal;
+import com.rbc.my_budget.analytics.TypeTotal;
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.currency.RateMatrix;
+import com.rbc.my_budget.exception.InvalidFilterException;
+import com.rbc.my_budget.transaction.TransactionsChangedEvent;
+import com.rbc.my_budget.transaction.Type;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class AnalyticsServiceTest {
+
+    private static final Instant FROM = Instant.parse("2023-09-01T00:00:00Z");
+    private static final Instant BEFORE = Instant.parse("2024-08-21T00:00:00Z");
+
+    @Mock
+    private AnalyticsRepository analyticsRepository;
+    @Mock
+    private CurrencyService currencyService;
+
+    private AnalyticsCache analyticsCache;
+    private AnalyticsService analyticsService;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        analyticsCache = new AnalyticsCache(10);
+        analyticsService = new AnalyticsService(analyticsRepository, analyticsCache, currencyService,
+                Clock.fixed(Instant.parse("2024-08-20T10:00:00Z"), ZoneOffset.UTC));
+        when(currencyService.getLatestRateMatrix("EUR")).thenReturn(
+                RateMatrix.of("EUR", "2024-08-20", Map.of("usd", new BigDecimal("2"))));
+    }
+
+    @Test
+    public void test_type_breakdown_merges_currencies() {
+
+        when(analyticsRepository.sumByType(null, FROM, BEFORE)).thenReturn(List.of(
+                new TypeCurrencyTotal(Type.DEBIT, "EUR", new BigDecimal("30.00"), 3L),
+                new TypeCurrencyTotal(Type.DEBIT, "USD", new BigDecimal("20.00"), 1L),
+                new TypeCurrencyTotal(Type.CREDIT, "EUR", new BigDecimal("100.00"), 1L)));
+
+        AnalyticsReport<TypeTotal> report = analyticsService.getTypeBreakdown(null, null, null, "eur");
+
+        assertEquals("EUR", report.currency());
+        assertEquals(LocalDate.of(2023, 9, 1), report.from());
+        assertEquals(List.of(
+                new TypeTotal(Type.CREDIT, new BigDecimal("100.00"), 1),
+                new TypeTotal(Type.DEBIT, new BigDecimal("40.00"), 4)), report.items());
+    }
+
+    @Test
+    public void test_top_descriptions_are_ranked_after_conversion() {
+
+        when(analyticsRepository.sumByDescription(eq("Wallet"), eq(Type.DEBIT), any(), any())).thenReturn(List.of(
+                new DescriptionCurrencyTotal("Rent", "EUR", new BigDecimal("700.00"), 1L),
+                new DescriptionCurrencyTotal("Coffee", "EUR", new BigDecimal("12.00"), 4L),
+                new DescriptionCurrencyTotal("Flights", "USD", new BigDecimal("1000.00"), 1L)));
+
+        AnalyticsReport<DescriptionTotal> report = analyticsService.getTopDescriptions("Wallet", null, null, null, 2, "EUR");
+
+        assertEquals(List.of(
+                new DescriptionTotal("Rent", new BigDecimal("700.00"), 1),
+                new DescriptionTotal("Flights", new BigDecimal("500.00"), 1)), report.items());
+    }
+
+    @Test
+    public void test_net_flow_folds_days_into_weeks() {
+
+        when(analyticsRepository.streamFlows(null, Instant.parse("2024-08-05T00:00:00Z"), BEFORE)).thenReturn(Stream.of(
+                new BookedFlow(Instant.parse("2024-08-05T09:00:00Z"), Type.CREDIT, "EUR", new BigDecimal("100.00")),
+                new BookedFlow(Instant.parse("2024-08-11T12:00:00Z"), Type.DEBIT, "EUR", new BigDecimal("10.00")),
+                new BookedFlow(Instant.parse("2024-08-11T18:00:00Z"), Type.DEBIT, "EUR", new BigDecimal("20.00")),
+                new BookedFlow(Instant.parse("2024-08-12T08:00:00Z"), Type.DEBIT, "USD", new BigDecimal("10.00"))));
+
+        AnalyticsReport<PeriodFlow> report = analyticsService.getNetFlow(null, LocalDate.of(2024, 8, 5), null, FlowPeriod.WEEK, "EUR");
+
+        assertEquals(List.of(
+                new PeriodFlow(LocalDate.of(2024, 8, 5), new BigDecimal("100.00"), new BigDecimal("30.00"), new BigDecimal("70.00")),
+                new PeriodFlow(LocalDate.of(2024, 8, 12), new BigDecimal("0.00"), new BigDecimal("5.00"), new BigDecimal("-5.00"))),
+                report.items());
+    }
+
+    @Test
+    public void test_net_flow_cuts_days_at_utc_midnight() {
+
+        when(analyticsRepository.streamFlows(null, Instant.parse("2024-08-05T00:00:00Z"), BEFORE)).thenReturn(Stream.of(
+                new BookedFlow(Instant.parse("2024-08-11T23:59:59Z"), Type.CREDIT, "EUR", new BigDecimal("40.00")),
+                new BookedFlow(Instant.parse("2024-08-12T00:00:00Z"), Type.CREDIT, "EUR", new BigDecimal("60.00"))));
+
+        AnalyticsReport<PeriodFlow> report = analyticsService.getNetFlow(null, LocalDate.of(2024, 8, 5), null, FlowPeriod.WEEK, "EUR");
+
+        assertEquals(List.of(
+                new PeriodFlow(LocalDate.of(2024, 8, 5), new BigDecimal("40.00"), new BigDecimal("0.00"), new BigDecimal("40.00")),
+                new PeriodFlow(LocalDate.of(2024, 8, 12), new BigDecimal("60.00"), new BigDecimal("0.00"), new BigDecimal("60.00"))),
+                report.items());
+    }
+
+    @Test
+    public void test_repeated_report_is_served_from_cache_until_invalidated() {
+
+        when(analyticsRepository.sumByType(any(), any(), any())).thenReturn(List.of());
+
+        analyticsService.getTypeBreakdown("Wallet", null, null, "EUR");
+        analyticsService.getTypeBreakdown("Wallet", null, null, "EUR");
+        verify(analyticsRepository, times(1)).sumByType(any(), any(), any());
+
+        analyticsCache.onTransactionsChanged(TransactionsChangedEvent.of("Savings"));
+        analyticsService.getTypeBreakdown("Wallet", null, null, "EUR");
+        verify(analyticsRepository, times(1)).sumByType(any(), any(), any());
+
+        analyticsCache.onTransactionsChanged(TransactionsChangedEvent.of("Wallet"));
+        analyticsService.getTypeBreakdown("Wallet", null, null, "EUR");
+        verify(analyticsRepository, times(2)).sumByType(any(), any(), any());
+    }
+
+    @Test
+    public void test_write_naming_account_in_another_case_invalidates_its_reports() {
+
+        when(analyticsRepository.sumByType(any(), any(), any())).thenReturn(List.of());
+
+        analyticsService.getTypeBreakdown("Wallet", null, null, "EUR");
+        analyticsCache.onTransactionsChanged(TransactionsChangedEvent.of("WALLET"));
+        analyticsService.getTypeBreakdown("Wallet", null, null, "EUR");
+
+        verify(analyticsRepository, times(2)).sumByType(any(), any(), any());
+    }
+
+    @Test
+    public void test_cross_account_report_is_invalidated_by_any_account() {
+
+        when(analyticsRepository.sumByType(any(), any(), any())).thenReturn(List.of());
+
+        analyticsService.getTypeBreakdown(null, null, null, "EUR");
+        analyticsCache.onTransactionsChanged(TransactionsChangedEvent.of("Savings"));
+        analyticsService.getTypeBreakdown(null, null, null, "EUR");
+
+        verify(analyticsRepository, times(2)).sumByType(any(), any(), any());
+    }
+
+    @Test
+    public void test_report_computed_across_a_write_is_not_cached() {
+
+        when(analyticsRepository.sumByType(any(), any(), any())).thenAnswer(invocation -> {
+            analyticsCache.onTransactionsChanged(TransactionsChangedEvent.of("Wallet"));
+            return List.of();
+        });
+
+        analyticsService.getTypeBreakdown("Wallet", null, null, "EUR");
+
+        assertEquals(0, analyticsCache.size());
+    }
+
+    @Test
+    public void test_inverted_range_is_rejected() {
+
+        assertThrows(InvalidFilterException.class,
+                () -> analyticsService.getTypeBreakdown(null, LocalDate.of(2024, 8, 2), LocalDate.of(2024, 8, 1), "EUR"));
+        verifyNoInteractions(analyticsRepository);
+    }
+}
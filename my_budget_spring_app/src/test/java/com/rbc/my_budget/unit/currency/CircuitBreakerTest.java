@@ -0,0 +1,73 @@
+package com.rbc.my_budget.unit.currency;
+
+import com.rbc.my_budget.currency.CircuitBreaker;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+
+    private static final Instant NOW = Instant.parse("2024-08-01T10:00:00Z");
+
+    @Test
+    public void test_circuit_opens_after_consecutive_failures() {
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, Duration.ofSeconds(30), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        circuitBreaker.onFailure();
+        assertTrue(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void test_success_resets_failure_count() {
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, Duration.ofSeconds(30), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void test_trial_call_after_open_duration() {
+
+        MutableClock clock = new MutableClock(NOW);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ofSeconds(30), clock);
+        circuitBreaker.onFailure();
+
+        clock.advance(Duration.ofSeconds(31));
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.onFailure();
+        assertFalse(circuitBreaker.tryAcquire());
+
+        clock.advance(Duration.ofSeconds(31));
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void test_only_one_trial_call_while_half_open() {
+
+        MutableClock clock = new MutableClock(NOW);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ofSeconds(30), clock);
+        circuitBreaker.onFailure();
+
+        clock.advance(Duration.ofSeconds(31));
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+}
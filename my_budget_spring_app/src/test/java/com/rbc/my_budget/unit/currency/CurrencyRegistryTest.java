@@ -0,0 +1,66 @@
+package com.rbc.my_budget.unit.currency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbc.my_budget.currency.CurrencyRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CurrencyRegistryTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private CurrencyRegistry currencyRegistry;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        currencyRegistry = new CurrencyRegistry(restTemplate, new ObjectMapper());
+    }
+
+    @Test
+    public void test_bundled_snapshot_is_available_without_network() {
+
+        assertTrue(currencyRegistry.isValid("EUR"));
+        assertTrue(currencyRegistry.isValid("usd"));
+        assertFalse(currencyRegistry.isValid("ABC"));
+        assertFalse(currencyRegistry.isValid("EURO"));
+        assertFalse(currencyRegistry.isValid(null));
+
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    public void test_refresh_adds_new_currencies() {
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(Map.of("abc", "New Currency", "eur", "Euro"));
+
+        currencyRegistry.refresh();
+
+        assertTrue(currencyRegistry.isValid("ABC"));
+        assertTrue(currencyRegistry.isValid("USD"));
+    }
+
+    @Test
+    public void test_failed_refresh_keeps_known_currencies() {
+
+        int known = currencyRegistry.size();
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenThrow(new ResourceAccessException("timeout"));
+
+        currencyRegistry.refresh();
+
+        assertEquals(known, currencyRegistry.size());
+        assertTrue(currencyRegistry.isValid("EUR"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.rbc.my_budget.unit.currency;
+
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.currency.ExchangeRateCache;
+import com.rbc.my_budget.currency.ExchangeRateHistory;
+import com.rbc.my_budget.currency.ExchangeRateProperties;
+import com.rbc.my_budget.currency.ExchangeRateProvider;
+import com.rbc.my_budget.currency.RateMatrix;
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CurrencyServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 8, 10);
+
+    @Mock
+    private ExchangeRateProvider exchangeRateProvider;
+    @Mock
+    private ExchangeRateCache exchangeRateCache;
+    @Mock
+    private ExchangeRateHistory exchangeRateHistory;
+
+    private CurrencyService currencyService;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ExchangeRateProperties properties = new ExchangeRateProperties("eur", null, null, null, null, null, null);
+        currencyService = new CurrencyService(exchangeRateProvider, exchangeRateCache, exchangeRateHistory, properties,
+                Clock.fixed(Instant.parse("2024-08-10T10:00:00Z"), ZoneOffset.UTC));
+        when(exchangeRateCache.getMatrix(eq("eur"), any()))
+                .thenReturn(RateMatrix.of("eur", TODAY.toString(), Map.of("usd", new BigDecimal("1.10"))));
+    }
+
+    @Test
+    public void test_todays_rate_falls_back_to_live_rates_until_recorded() {
+
+        when(exchangeRateHistory.getMatrix(TODAY)).thenReturn(Optional.empty());
+
+        assertEquals(1.10, currencyService.getExchangeRate("EUR", "USD", TODAY).doubleValue(), 1e-9);
+    }
+
+    @Test
+    public void test_date_before_history_is_not_converted_at_todays_rate() {
+
+        when(exchangeRateHistory.getMatrix(TODAY.minusDays(30))).thenReturn(Optional.empty());
+
+        assertThrows(ExchangeRateUnavailableException.class,
+                () -> currencyService.getExchangeRate("EUR", "USD", TODAY.minusDays(30)));
+        verify(exchangeRateCache, never()).getMatrix(any(), any());
+    }
+}
@@ -0,0 +1,223 @@
+package com.rbc.my_budget.unit.currency;
+
+import com.rbc.my_budget.currency.ExchangeRateCache;
+import com.rbc.my_budget.currency.ExchangeRateCacheStats;
+import com.rbc.my_budget.currency.ExchangeRateProperties;
+import com.rbc.my_budget.currency.RateMatrix;
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ExchangeRateCacheTest {
+
+    private MutableClock clock;
+    private ExchangeRateCache cache;
+    private AtomicInteger loads;
+    private Queue<Runnable> backgroundTasks;
+    private boolean deferBackgroundTasks;
+
+    @Before
+    public void setUp() {
+        clock = new MutableClock(Instant.parse("2024-08-01T10:00:00Z"));
+        cache = new ExchangeRateCache(properties(Duration.ofSeconds(5)), clock, Runnable::run);
+        loads = new AtomicInteger();
+        backgroundTasks = new ArrayDeque<>();
+    }
+
+    @Test
+    public void test_second_lookup_is_served_from_cache() {
+
+        cache.getMatrix("EUR", this::load);
+        RateMatrix matrix = cache.getMatrix("eur", this::load);
+
+        assertEquals(1.1, matrix.rate("EUR", "USD"), 1e-9);
+        assertEquals(1, loads.get());
+
+        ExchangeRateCacheStats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.fetches());
+        assertEquals(0.5, stats.hitRatio(), 0.0001);
+    }
+
+    @Test
+    public void test_entry_expires_after_ttl() {
+
+        cache.getMatrix("EUR", this::load);
+        clock.advance(Duration.ofHours(6));
+        cache.getMatrix("EUR", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void test_expired_entry_is_served_while_refreshing_in_background() {
+
+        cache = new ExchangeRateCache(properties(Duration.ofSeconds(5)), clock, this::runOrDefer);
+
+        cache.getMatrix("EUR", base -> RateMatrix.of(base, "2024-08-01", Map.of("usd", new BigDecimal("1.0"))));
+        clock.advance(Duration.ofHours(7));
+        deferBackgroundTasks = true;
+
+        RateMatrix stale = cache.getMatrix("EUR", this::load);
+
+        assertEquals(1.0, stale.rate("EUR", "USD"), 1e-9);
+        assertEquals(0, loads.get());
+        assertEquals(1, backgroundTasks.size());
+
+        backgroundTasks.poll().run();
+
+        assertEquals(1.1, cache.getMatrix("EUR", this::load).rate("EUR", "USD"), 1e-9);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().staleHits());
+    }
+
+    @Test
+    public void test_failed_refresh_keeps_serving_stale_entry() {
+
+        cache.getMatrix("EUR", this::load);
+        clock.advance(Duration.ofHours(7));
+
+        RateMatrix stale = cache.getMatrix("EUR", base -> {
+            throw new ExchangeRateUnavailableException(base);
+        });
+
+        assertEquals(1.1, stale.rate("EUR", "USD"), 1e-9);
+        assertEquals(1, cache.getStats().fetchFailures());
+    }
+
+    @Test
+    public void test_miss_gives_up_after_wait_budget() {
+
+        cache = new ExchangeRateCache(properties(Duration.ofMillis(20)), clock, backgroundTasks::add);
+
+        assertThrows(ExchangeRateUnavailableException.class, () -> cache.getMatrix("EUR", this::load));
+        assertEquals(1, backgroundTasks.size());
+    }
+
+    @Test
+    public void test_entry_expires_at_next_daily_update() {
+
+        clock.set(Instant.parse("2024-08-01T23:30:00Z"));
+        cache.getMatrix("EUR", this::load);
+        clock.advance(Duration.ofMinutes(31));
+        cache.getMatrix("EUR", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void test_generation_moves_with_each_fetch_only() {
+
+        long initial = cache.generation();
+        cache.getMatrix("EUR", this::load);
+        long fetched = cache.generation();
+        cache.getMatrix("EUR", this::load);
+
+        assertNotEquals(initial, fetched);
+        assertEquals(fetched, cache.generation());
+
+        clock.advance(Duration.ofHours(6));
+        cache.getMatrix("EUR", this::load);
+        assertNotEquals(fetched, cache.generation());
+    }
+
+    @Test
+    public void test_least_recently_used_entry_is_evicted() {
+
+        cache.getMatrix("EUR", this::load);
+        cache.getMatrix("USD", this::load);
+        cache.getMatrix("EUR", this::load);
+        cache.getMatrix("GBP", this::load);
+
+        assertEquals(2, cache.getStats().size());
+        assertEquals(1, cache.getStats().evictions());
+
+        cache.getMatrix("EUR", this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void test_empty_response_is_not_cached() {
+
+        cache.getMatrix("EUR", base -> RateMatrix.EMPTY);
+        cache.getMatrix("EUR", this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().fetchFailures());
+    }
+
+    @Test
+    public void test_concurrent_misses_share_single_fetch() throws Exception {
+
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<RateMatrix>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.getMatrix("EUR", base -> {
+                fetchStarted.countDown();
+                await(releaseFetch);
+                return load(base);
+            })));
+            assertTrue(fetchStarted.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 7; i++)
+                results.add(executor.submit(() -> cache.getMatrix("EUR", this::load)));
+
+            Thread.sleep(100);
+            releaseFetch.countDown();
+
+            for (Future<RateMatrix> result : results)
+                assertEquals(1.1, result.get(5, TimeUnit.SECONDS).rate("EUR", "USD"), 1e-9);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().fetches());
+    }
+
+    private void runOrDefer(Runnable task) {
+        if (deferBackgroundTasks)
+            backgroundTasks.add(task);
+        else
+            task.run();
+    }
+
+    private static ExchangeRateProperties properties(Duration waitBudget) {
+        return new ExchangeRateProperties("eur", waitBudget, Duration.ofDays(7),
+                new ExchangeRateProperties.Cache(Duration.ofHours(6), 2), null, null, null);
+    }
+
+    private RateMatrix load(String base) {
+        loads.incrementAndGet();
+        return RateMatrix.of(base, "2024-08-01", Map.of("usd", new BigDecimal("1.1"), "gbp", new BigDecimal("0.85")));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.rbc.my_budget.unit.currency;
+
+import com.rbc.my_budget.currency.CurrencyRate;
+import com.rbc.my_budget.currency.CurrencyRateRepository;
+import com.rbc.my_budget.currency.ExchangeRateHistory;
+import com.rbc.my_budget.currency.ExchangeRateProperties;
+import com.rbc.my_budget.currency.RateMatrix;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ExchangeRateHistoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 8, 10);
+
+    @Mock
+    private CurrencyRateRepository currencyRateRepository;
+
+    private ExchangeRateHistory exchangeRateHistory;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ExchangeRateProperties properties = new ExchangeRateProperties("eur", null, null, null, null, null,
+                new ExchangeRateProperties.History(7, 2));
+        exchangeRateHistory = new ExchangeRateHistory(currencyRateRepository, properties,
+                Clock.fixed(Instant.parse("2024-08-10T10:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    public void test_load_index_groups_recent_rows_by_date() {
+
+        when(currencyRateRepository.findByBaseAndRateDateGreaterThanEqual("eur", TODAY.minusDays(6))).thenReturn(List.of(
+                new CurrencyRate(TODAY.minusDays(1), "eur", "usd", new BigDecimal("1.09")),
+                new CurrencyRate(TODAY.minusDays(1), "eur", "gbp", new BigDecimal("0.85")),
+                new CurrencyRate(TODAY, "eur", "usd", new BigDecimal("1.10"))));
+
+        exchangeRateHistory.loadIndex();
+
+        assertEquals(2, exchangeRateHistory.indexedDays());
+        assertEquals(1.09, exchangeRateHistory.getMatrix(TODAY.minusDays(1)).orElseThrow().rate("EUR", "USD"), 1e-9);
+        assertEquals(1.10, exchangeRateHistory.getMatrix(TODAY).orElseThrow().rate("EUR", "USD"), 1e-9);
+    }
+
+    @Test
+    public void test_lookup_uses_latest_indexed_day_on_or_before_date() {
+
+        exchangeRateHistory.record(RateMatrix.of("eur", "2024-08-08", Map.of("usd", new BigDecimal("1.08"))));
+
+        RateMatrix matrix = exchangeRateHistory.getMatrix(TODAY).orElseThrow();
+
+        assertEquals(1.08, matrix.rate("EUR", "USD"), 1e-9);
+        verify(currencyRateRepository, never()).findLatestRateDate(anyString(), any());
+    }
+
+    @Test
+    public void test_lookup_before_index_reads_database() {
+
+        LocalDate old = LocalDate.of(2023, 1, 15);
+        when(currencyRateRepository.findLatestRateDate("eur", old)).thenReturn(Optional.of(LocalDate.of(2023, 1, 13)));
+        when(currencyRateRepository.findByRateDateAndBase(LocalDate.of(2023, 1, 13), "eur"))
+                .thenReturn(List.of(new CurrencyRate(LocalDate.of(2023, 1, 13), "eur", "usd", new BigDecimal("1.07"))));
+
+        assertEquals(1.07, exchangeRateHistory.getMatrix(old).orElseThrow().rate("EUR", "USD"), 1e-9);
+    }
+
+    @Test
+    public void test_repeated_lookup_before_index_reuses_matrix() {
+
+        LocalDate old = LocalDate.of(2023, 1, 15);
+        LocalDate latest = LocalDate.of(2023, 1, 13);
+        when(currencyRateRepository.findLatestRateDate(eq("eur"), any())).thenReturn(Optional.of(latest));
+        when(currencyRateRepository.findByRateDateAndBase(latest, "eur"))
+                .thenReturn(List.of(new CurrencyRate(latest, "eur", "usd", new BigDecimal("1.07"))));
+
+        RateMatrix first = exchangeRateHistory.getMatrix(old).orElseThrow();
+        RateMatrix second = exchangeRateHistory.getMatrix(old.minusDays(1)).orElseThrow();
+
+        assertSame(first, second);
+        verify(currencyRateRepository, times(1)).findByRateDateAndBase(latest, "eur");
+    }
+
+    @Test
+    public void test_record_stores_rates_once_per_day() {
+
+        RateMatrix matrix = RateMatrix.of("eur", "2024-08-10", Map.of("usd", new BigDecimal("1.10"), "gbp", new BigDecimal("0.85")));
+        when(currencyRateRepository.existsByRateDateAndBase(TODAY, "eur")).thenReturn(false, true);
+
+        exchangeRateHistory.record(matrix);
+        exchangeRateHistory.record(matrix);
+
+        verify(currencyRateRepository, times(1)).saveAll(argThat(rows -> ((List<?>) rows).size() == 3));
+    }
+}
@@ -0,0 +1,51 @@
+package com.rbc.my_budget.unit.currency;
+
+import com.rbc.my_budget.currency.CurrencyCodes;
+import com.rbc.my_budget.currency.RateMatrix;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RateMatrixTest {
+
+    private final RateMatrix matrix = RateMatrix.of("eur", "2024-08-01", Map.of(
+            "usd", new BigDecimal("1.08"),
+            "gbp", new BigDecimal("0.84"),
+            "1inch", new BigDecimal("3.5")));
+
+    @Test
+    public void test_rate_against_anchor() {
+
+        assertEquals(1.08, matrix.rate("EUR", "USD"), 1e-9);
+        assertEquals(1 / 1.08, matrix.rate("usd", "eur"), 1e-9);
+    }
+
+    @Test
+    public void test_cross_rate_is_triangulated_through_anchor() {
+
+        assertEquals(0.84 / 1.08, matrix.rate("USD", "GBP"), 1e-9);
+        assertEquals(1.0, matrix.rate("GBP", "gbp"), 1e-9);
+    }
+
+    @Test
+    public void test_unknown_currency_has_no_rate() {
+
+        assertTrue(Double.isNaN(matrix.rate("USD", "JPY")));
+        assertTrue(Double.isNaN(matrix.rate("USD", "1inch")));
+        assertFalse(matrix.supports("JPY"));
+        assertTrue(matrix.supports("eur"));
+        assertEquals(3, matrix.size());
+    }
+
+    @Test
+    public void test_currency_code_packing_is_case_insensitive() {
+
+        assertEquals(CurrencyCodes.index("usd"), CurrencyCodes.index("USD"));
+        assertEquals("usd", CurrencyCodes.code(CurrencyCodes.index("UsD")));
+        assertEquals(-1, CurrencyCodes.index("US"));
+        assertEquals(-1, CurrencyCodes.index("U$D"));
+    }
+}
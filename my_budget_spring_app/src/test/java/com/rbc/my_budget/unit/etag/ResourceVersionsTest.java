@@ -0,0 +1,112 @@
+package com.rbc.my_budget.unit.etag;
+
+import com.rbc.my_budget.account.AccountsChangedEvent;
+import com.rbc.my_budget.currency.ExchangeRateCache;
+import com.rbc.my_budget.currency.ExchangeRateHistory;
+import com.rbc.my_budget.etag.ETags;
+import com.rbc.my_budget.etag.ResourceVersions;
+import com.rbc.my_budget.transaction.TransactionsChangedEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ResourceVersionsTest {
+
+    private ExchangeRateHistory exchangeRateHistory;
+    private ExchangeRateCache exchangeRateCache;
+    private ResourceVersions versions;
+
+    @Before
+    public void setUp() {
+        exchangeRateHistory = mock(ExchangeRateHistory.class);
+        exchangeRateCache = mock(ExchangeRateCache.class);
+        versions = new ResourceVersions(exchangeRateHistory, exchangeRateCache, Clock.fixed(Instant.parse("2024-08-01T10:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    public void test_transaction_write_changes_both_tags() {
+
+        String accounts = versions.accountsTag(null);
+        String transactions = versions.transactionsTag(null);
+
+        versions.onTransactionsChanged(TransactionsChangedEvent.of("TestAccount"));
+
+        assertNotEquals(accounts, versions.accountsTag(null));
+        assertNotEquals(transactions, versions.transactionsTag(null));
+    }
+
+    @Test
+    public void test_account_write_leaves_transaction_tag_unchanged() {
+
+        String accounts = versions.accountsTag(null);
+        String transactions = versions.transactionsTag(null);
+
+        versions.onAccountsChanged(new AccountsChangedEvent("TestAccount"));
+
+        assertNotEquals(accounts, versions.accountsTag(null));
+        assertEquals(transactions, versions.transactionsTag(null));
+    }
+
+    @Test
+    public void test_converted_tag_changes_with_rates_date() {
+
+        when(exchangeRateHistory.latestIndexedDate())
+                .thenReturn(Optional.of(LocalDate.of(2024, 8, 1)))
+                .thenReturn(Optional.of(LocalDate.of(2024, 8, 2)));
+
+        String first = versions.accountsTag("EUR");
+
+        assertNotEquals(versions.accountsTag(null), first);
+        assertNotEquals(first, versions.accountsTag("EUR"));
+    }
+
+    @Test
+    public void test_matching_tag_skips_body() {
+
+        String etag = versions.accountsTag(null);
+        AtomicInteger reads = new AtomicInteger();
+
+        ResponseEntity<Integer> fresh = ETags.respond(null, etag, reads::incrementAndGet);
+        ResponseEntity<Integer> notModified = ETags.respond("\"other\", W/" + etag, etag, reads::incrementAndGet);
+        ResponseEntity<Integer> stale = ETags.respond("\"other\"", etag, reads::incrementAndGet);
+
+        assertEquals(HttpStatus.OK, fresh.getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(HttpStatus.OK, stale.getStatusCode());
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void test_converted_tag_never_loads_rates() {
+
+        when(exchangeRateHistory.latestIndexedDate()).thenReturn(Optional.empty());
+
+        assertNotEquals(versions.accountsTag(null), versions.accountsTag("EUR"));
+        verify(exchangeRateHistory, never()).getMatrix(any());
+        verify(exchangeRateCache, never()).getMatrix(any(), any());
+    }
+
+    @Test
+    public void test_converted_tag_follows_live_rates_until_history_is_recorded() {
+
+        when(exchangeRateHistory.latestIndexedDate()).thenReturn(Optional.empty());
+        when(exchangeRateCache.generation()).thenReturn(1L, 2L);
+
+        String first = versions.accountsTag("EUR");
+
+        assertNotEquals(first, versions.accountsTag("EUR"));
+    }
+}
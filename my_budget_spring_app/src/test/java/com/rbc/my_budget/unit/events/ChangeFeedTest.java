@@ -0,0 +1,97 @@
+package com.rbc.my_budget.unit.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbc.my_budget.account.AccountService;
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.events.ChangeFeed;
+import com.rbc.my_budget.events.ChangeFeedProperties;
+import com.rbc.my_budget.exception.ChangeFeedFullException;
+import com.rbc.my_budget.exception.UnsupportedCurrencyException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+public class ChangeFeedTest {
+
+    @Mock
+    private AccountService accountService;
+    @Mock
+    private CurrencyService currencyService;
+
+    private ChangeFeed changeFeed;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        changeFeed = new ChangeFeed(accountService, currencyService, new ObjectMapper(),
+                new ChangeFeedProperties(Duration.ofMinutes(30), Duration.ofSeconds(25), 3, 100, 16, 100),
+                Clock.systemUTC(), new MockEnvironment());
+    }
+
+    @After
+    public void tearDown() {
+        changeFeed.shutdown();
+    }
+
+    @Test
+    public void test_concurrent_subscribes_cannot_exceed_the_limit() throws Exception {
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++)
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        changeFeed.subscribe(null, null);
+                        accepted.incrementAndGet();
+                    } catch (ChangeFeedFullException e) {
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            start.countDown();
+            for (Future<?> future : futures)
+                future.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(3, accepted.get());
+        assertEquals(17, refused.get());
+    }
+
+    @Test
+    public void test_refused_subscribe_gives_its_slot_back() {
+
+        when(currencyService.getLatestRateMatrix("XXX")).thenThrow(new UnsupportedCurrencyException("XXX"));
+
+        for (int i = 0; i < 5; i++)
+            assertThrows(UnsupportedCurrencyException.class, () -> changeFeed.subscribe("XXX", null));
+
+        for (int i = 0; i < 3; i++)
+            assertNotNull(changeFeed.subscribe(null, null));
+        assertThrows(ChangeFeedFullException.class, () -> changeFeed.subscribe(null, null));
+    }
+}
@@ -0,0 +1,229 @@
+package com.rbc.my_budget.unit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbc.my_budget.exception.IdempotencyKeyInProgressException;
+import com.rbc.my_budget.exception.IdempotencyKeyReusedException;
+import com.rbc.my_budget.exception.InvalidIdempotencyKeyException;
+import com.rbc.my_budget.idempotency.IdempotencyProperties;
+import com.rbc.my_budget.idempotency.IdempotencyStore;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-08-01T10:00:00Z");
+
+    private Clock clock;
+    private IdempotencyStore store;
+    private AtomicInteger executions;
+
+    @Before
+    public void setUp() {
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        store = store(100);
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    public void test_repeated_key_replays_original_response() {
+
+        ResponseEntity<Integer> first = store.execute("key-1", "create", Map.of("amount", 10), this::created);
+        ResponseEntity<Integer> retry = store.execute("key-1", "create", Map.of("amount", 10), this::created);
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void test_requests_without_key_always_run() {
+
+        store.execute(null, "create", Map.of("amount", 10), this::created);
+        store.execute(null, "create", Map.of("amount", 10), this::created);
+
+        assertEquals(2, executions.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void test_key_reused_for_different_request_is_rejected() {
+
+        store.execute("key-1", "create", Map.of("amount", 10), this::created);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute("key-1", "create", Map.of("amount", 20), this::created));
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute("key-1", "edit 1", Map.of("amount", 10), this::created));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void test_blank_key_is_rejected() {
+        assertThrows(InvalidIdempotencyKeyException.class, () -> store.execute(" ", "create", Map.of(), this::created));
+    }
+
+    @Test
+    public void test_overlong_key_is_rejected() {
+        assertThrows(InvalidIdempotencyKeyException.class, () -> store.execute("k".repeat(256), "create", Map.of(), this::created));
+    }
+
+    @Test
+    public void test_failed_request_can_be_retried_with_same_key() {
+
+        assertThrows(IllegalStateException.class, () -> store.execute("key-1", "create", Map.of(), () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        store.execute("key-1", "create", Map.of(), this::created);
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void test_key_expires_after_ttl() {
+
+        store.execute("key-1", "create", Map.of(), this::created);
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofHours(25)));
+        store.execute("key-1", "create", Map.of(), this::created);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void test_oldest_completed_key_is_evicted_when_full() {
+
+        store = store(2);
+        store.execute("key-1", "create", Map.of(), this::created);
+        when(clock.instant()).thenReturn(NOW.plusSeconds(1));
+        store.execute("key-2", "create", Map.of(), this::created);
+        when(clock.instant()).thenReturn(NOW.plusSeconds(2));
+        store.execute("key-3", "create", Map.of(), this::created);
+
+        assertEquals(2, store.size());
+
+        store.execute("key-1", "create", Map.of(), this::created);
+        assertEquals(4, executions.get());
+    }
+
+    @Test
+    public void test_error_in_action_releases_the_key() {
+
+        assertThrows(AssertionError.class, () -> store.execute("key-1", "create", Map.of(), () -> {
+            throw new AssertionError("out of memory");
+        }));
+        assertEquals(0, store.size());
+
+        store.execute("key-1", "create", Map.of(), this::created);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void test_expired_keys_are_dropped_before_the_store_is_full() {
+
+        store.execute("key-1", "create", Map.of(), this::created);
+        store.execute("key-2", "create", Map.of(), this::created);
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofHours(25)));
+        store.execute("key-3", "create", Map.of(), this::created);
+
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void test_concurrent_duplicates_wait_for_in_flight_request() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<ResponseEntity<Integer>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> store.execute("key-1", "create", Map.of(), () -> {
+                started.countDown();
+                await(release);
+                return created();
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 7; i++)
+                results.add(executor.submit(() -> store.execute("key-1", "create", Map.of(), this::created)));
+
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<ResponseEntity<Integer>> result : results)
+                assertEquals(Integer.valueOf(1), result.get(5, TimeUnit.SECONDS).getBody());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void test_duplicate_gives_up_when_first_request_runs_too_long() throws Exception {
+
+        IdempotencyStore impatient = new IdempotencyStore(new IdempotencyProperties(Duration.ofHours(24), 100, Duration.ofMillis(50)),
+                new ObjectMapper(), clock);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<ResponseEntity<Integer>> first = executor.submit(() -> impatient.execute("key-1", "create", Map.of(), () -> {
+                started.countDown();
+                await(release);
+                return created();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(IdempotencyKeyInProgressException.class,
+                    () -> impatient.execute("key-1", "create", Map.of(), this::created));
+
+            release.countDown();
+            assertEquals(Integer.valueOf(1), first.get(5, TimeUnit.SECONDS).getBody());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, executions.get());
+    }
+
+    private IdempotencyStore store(int maxEntries) {
+        return new IdempotencyStore(new IdempotencyProperties(Duration.ofHours(24), maxEntries, Duration.ofSeconds(5)),
+                new ObjectMapper(), clock);
+    }
+
+    private ResponseEntity<Integer> created() {
+        return ResponseEntity.status(HttpStatus.CREATED).body(executions.incrementAndGet());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.rbc.my_budget.unit.ledger;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.ledger.BalanceSnapshot;
+import com.rbc.my_budget.ledger.BalanceSnapshotRepository;
+import com.rbc.my_budget.ledger.LedgerBalance;
+import com.rbc.my_budget.ledger.LedgerEntry;
+import com.rbc.my_budget.ledger.LedgerEntryRepository;
+import com.rbc.my_budget.ledger.LedgerEventType;
+import com.rbc.my_budget.ledger.LedgerService;
+import com.rbc.my_budget.ledger.LedgerTail;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class LedgerServiceTest {
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+    @Mock
+    private AccountRepository accountRepository;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-08-01T10:00:00Z"), ZoneOffset.UTC);
+    private LedgerService ledgerService;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ledgerService = new LedgerService(ledgerEntryRepository, balanceSnapshotRepository, accountRepository,
+                TransactionOperations.withoutTransaction(), clock, 3);
+    }
+
+    @Test
+    public void test_balance_is_last_snapshot_plus_tail() {
+
+        when(accountRepository.lockByName("Wallet")).thenReturn(Optional.of(new Account("Wallet", new BigDecimal("130.00"), "EUR")));
+        when(balanceSnapshotRepository.findFirstByAccountNameOrderByLastEntryIdDesc("Wallet"))
+                .thenReturn(Optional.of(new BalanceSnapshot("Wallet", 40L, new BigDecimal("100.00"), clock.instant())));
+        when(ledgerEntryRepository.sumAfter("Wallet", 40L)).thenReturn(new LedgerTail(new BigDecimal("30.00"), 2, 42L));
+
+        LedgerBalance balance = ledgerService.getBalance("Wallet");
+
+        assertEquals(new BigDecimal("130.00"), balance.balance());
+        assertTrue(balance.consistent());
+        assertEquals(Long.valueOf(40), balance.snapshotEntryId());
+        assertEquals(2, balance.tailEntries());
+    }
+
+    @Test
+    public void test_drift_between_journal_and_account_is_reported() {
+
+        when(accountRepository.lockByName("Wallet")).thenReturn(Optional.of(new Account("Wallet", new BigDecimal("99.00"), "EUR")));
+        when(ledgerEntryRepository.sumAfter("Wallet", 0L)).thenReturn(new LedgerTail(new BigDecimal("100.00"), 5, 5L));
+
+        LedgerBalance balance = ledgerService.getBalance("Wallet");
+
+        assertFalse(balance.consistent());
+        assertNull(balance.snapshotEntryId());
+    }
+
+    @Test
+    public void test_snapshot_taken_once_tail_is_long_enough() {
+
+        when(accountRepository.lockByName("Wallet")).thenReturn(Optional.of(new Account("Wallet", new BigDecimal("74.50"), "EUR")));
+        when(balanceSnapshotRepository.findFirstByAccountNameOrderByLastEntryIdDesc("Wallet"))
+                .thenReturn(Optional.of(new BalanceSnapshot("Wallet", 40L, new BigDecimal("100.00"), clock.instant())));
+        when(ledgerEntryRepository.sumAfter("Wallet", 40L)).thenReturn(new LedgerTail(new BigDecimal("-25.50"), 3, 57L));
+
+        ledgerService.snapshot("Wallet");
+
+        ArgumentCaptor<BalanceSnapshot> snapshot = ArgumentCaptor.forClass(BalanceSnapshot.class);
+        verify(balanceSnapshotRepository).save(snapshot.capture());
+        assertEquals(Long.valueOf(57), snapshot.getValue().getLastEntryId());
+        assertEquals(new BigDecimal("74.50"), snapshot.getValue().getBalance());
+    }
+
+    @Test
+    public void test_snapshot_is_cut_under_the_account_lock() {
+
+        when(accountRepository.lockByName("Wallet")).thenReturn(Optional.of(new Account("Wallet", BigDecimal.TEN, "EUR")));
+        when(ledgerEntryRepository.sumAfter("Wallet", 0L)).thenReturn(new LedgerTail(BigDecimal.TEN, 3, 3L));
+
+        ledgerService.snapshot("Wallet");
+
+        // Writers append under the same lock, so nothing uncommitted can sit below the cut.
+        InOrder order = inOrder(accountRepository, ledgerEntryRepository, balanceSnapshotRepository);
+        order.verify(accountRepository).lockByName("Wallet");
+        order.verify(ledgerEntryRepository).sumAfter("Wallet", 0L);
+        order.verify(balanceSnapshotRepository).save(any());
+    }
+
+    @Test
+    public void test_closed_account_is_not_snapshotted() {
+
+        when(accountRepository.lockByName("Closed")).thenReturn(Optional.empty());
+
+        ledgerService.snapshot("Closed");
+
+        verify(ledgerEntryRepository, never()).sumAfter(anyString(), anyLong());
+        verify(balanceSnapshotRepository, never()).save(any());
+    }
+
+    @Test
+    public void test_short_tail_is_not_snapshotted() {
+
+        when(accountRepository.lockByName("Wallet")).thenReturn(Optional.of(new Account("Wallet", BigDecimal.TEN, "EUR")));
+        when(ledgerEntryRepository.sumAfter("Wallet", 0L)).thenReturn(new LedgerTail(BigDecimal.TEN, 2, 2L));
+
+        ledgerService.snapshot("Wallet");
+
+        verify(balanceSnapshotRepository, never()).save(any());
+    }
+
+    @Test
+    public void test_recorded_delta_is_rounded_like_the_balance_column() {
+
+        ledgerService.record("Wallet", LedgerEventType.CREATE, 7L, new BigDecimal("10.005"));
+
+        ArgumentCaptor<LedgerEntry> entry = ArgumentCaptor.forClass(LedgerEntry.class);
+        verify(ledgerEntryRepository).save(entry.capture());
+        assertEquals(new BigDecimal("10.01"), entry.getValue().getDelta());
+        assertEquals(LedgerEventType.CREATE, entry.getValue().getType());
+        assertEquals(Long.valueOf(7), entry.getValue().getTransactionId());
+    }
+
+    @Test
+    public void test_accounts_without_journal_get_opening_entry() {
+
+        when(ledgerEntryRepository.findAccountsWithoutEntries()).thenReturn(List.of(new Account("Legacy", new BigDecimal("55.00"), "USD")));
+
+        ledgerService.recordOpeningBalances();
+
+        ArgumentCaptor<LedgerEntry> entry = ArgumentCaptor.forClass(LedgerEntry.class);
+        verify(ledgerEntryRepository).save(entry.capture());
+        assertEquals(LedgerEventType.OPENING, entry.getValue().getType());
+        assertEquals(new BigDecimal("55.00"), entry.getValue().getDelta());
+    }
+}
@@ -0,0 +1,155 @@
+package com.rbc.my_budget.unit.monthly;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.currency.RateMatrix;
+import com.rbc.my_budget.exception.InvalidFilterException;
+import com.rbc.my_budget.monthly.AccountMonthlyTotal;
+import com.rbc.my_budget.monthly.BookedAmount;
+import com.rbc.my_budget.monthly.MonthlyTotal;
+import com.rbc.my_budget.monthly.MonthlyTotalRepository;
+import com.rbc.my_budget.monthly.MonthlyTotalService;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.Type;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class MonthlyTotalServiceTest {
+
+    private static final LocalDate AUGUST = LocalDate.of(2024, 8, 1);
+
+    @InjectMocks
+    private MonthlyTotalService monthlyTotalService;
+    @Mock
+    private MonthlyTotalRepository monthlyTotalRepository;
+    @Mock
+    private CurrencyService currencyService;
+
+    @Spy
+    private Clock clock = Clock.fixed(Instant.parse("2024-08-20T10:00:00Z"), ZoneOffset.UTC);
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void test_first_transaction_of_month_inserts_bucket() {
+
+        when(monthlyTotalRepository.increment(anyString(), any(), any(), anyString(), any(), anyLong())).thenReturn(0);
+
+        monthlyTotalService.add(transaction(Type.CREDIT, "12.50", "2024-08-31T23:59:59Z"));
+
+        ArgumentCaptor<MonthlyTotal> saved = ArgumentCaptor.forClass(MonthlyTotal.class);
+        verify(monthlyTotalRepository).save(saved.capture());
+        assertEquals(AUGUST, saved.getValue().getMonthStart());
+        assertEquals(new BigDecimal("12.50"), saved.getValue().getTotal());
+        assertEquals(1, saved.getValue().getEntries());
+    }
+
+    @Test
+    public void test_existing_bucket_is_incremented_in_place() {
+
+        when(monthlyTotalRepository.increment(anyString(), any(), any(), anyString(), any(), anyLong())).thenReturn(1);
+
+        monthlyTotalService.add(transaction(Type.DEBIT, "3.00", "2024-08-02T08:00:00Z"));
+
+        verify(monthlyTotalRepository).increment("Wallet", AUGUST, Type.DEBIT, "EUR", new BigDecimal("3.00"), 1);
+        verify(monthlyTotalRepository, never()).save(any());
+    }
+
+    @Test
+    public void test_removal_decrements_and_drops_empty_bucket() {
+
+        when(monthlyTotalRepository.increment(anyString(), any(), any(), anyString(), any(), anyLong())).thenReturn(1);
+
+        monthlyTotalService.remove(transaction(Type.DEBIT, "3.00", "2024-08-02T08:00:00Z"));
+
+        verify(monthlyTotalRepository).increment("Wallet", AUGUST, Type.DEBIT, "EUR", new BigDecimal("-3.00"), -1);
+        verify(monthlyTotalRepository).deleteIfEmpty("Wallet", AUGUST, Type.DEBIT, "EUR");
+        verify(monthlyTotalRepository, never()).save(any());
+    }
+
+    @Test
+    public void test_batch_updates_each_bucket_once() {
+
+        when(monthlyTotalRepository.increment(anyString(), any(), any(), anyString(), any(), anyLong())).thenReturn(1);
+
+        monthlyTotalService.addAll(List.of(
+                transaction(Type.CREDIT, "1.00", "2024-08-01T00:00:00Z"),
+                transaction(Type.CREDIT, "2.00", "2024-08-15T00:00:00Z"),
+                transaction(Type.CREDIT, "4.00", "2024-07-31T23:00:00Z")));
+
+        verify(monthlyTotalRepository).increment("Wallet", AUGUST, Type.CREDIT, "EUR", new BigDecimal("3.00"), 2);
+        verify(monthlyTotalRepository).increment("Wallet", LocalDate.of(2024, 7, 1), Type.CREDIT, "EUR", new BigDecimal("4.00"), 1);
+        verifyNoMoreInteractions(monthlyTotalRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_rebuild_cuts_months_in_utc_like_the_write_path() {
+
+        when(monthlyTotalRepository.streamBookedAmounts()).thenReturn(Stream.of(
+                new BookedAmount("Wallet", Instant.parse("2024-07-31T23:30:00Z"), Type.DEBIT, "EUR", new BigDecimal("10.00")),
+                new BookedAmount("Wallet", Instant.parse("2024-08-01T00:30:00Z"), Type.DEBIT, "EUR", new BigDecimal("5.00")),
+                new BookedAmount("Wallet", Instant.parse("2024-08-15T12:00:00Z"), Type.DEBIT, "EUR", new BigDecimal("2.50"))));
+
+        assertEquals(2, monthlyTotalService.rebuild());
+
+        ArgumentCaptor<List<MonthlyTotal>> saved = ArgumentCaptor.forClass(List.class);
+        verify(monthlyTotalRepository).saveAll(saved.capture());
+        assertEquals(List.of(AUGUST.minusMonths(1), AUGUST), saved.getValue().stream().map(MonthlyTotal::getMonthStart).toList());
+        assertEquals(new BigDecimal("7.50"), saved.getValue().get(1).getTotal());
+        assertEquals(2, saved.getValue().get(1).getEntries());
+    }
+
+    @Test
+    public void test_read_converts_and_merges_currencies() {
+
+        when(currencyService.getLatestRateMatrix("EUR")).thenReturn(
+                RateMatrix.of("EUR", "2024-08-20", Map.of("usd", new BigDecimal("2"))));
+        when(monthlyTotalRepository.findInRange(null, LocalDate.of(2023, 9, 1), AUGUST)).thenReturn(List.of(
+                new MonthlyTotal("Wallet", AUGUST, Type.DEBIT, "EUR", new BigDecimal("10.00"), 2),
+                new MonthlyTotal("Wallet", AUGUST, Type.DEBIT, "USD", new BigDecimal("10.00"), 1)));
+
+        List<AccountMonthlyTotal> totals = monthlyTotalService.getMonthlyTotals(null, null, null, "EUR");
+
+        assertEquals(1, totals.size());
+        assertEquals(YearMonth.of(2024, 8), totals.get(0).month());
+        assertEquals(new BigDecimal("15.00"), totals.get(0).total());
+        assertEquals(3, totals.get(0).entries());
+    }
+
+    @Test
+    public void test_read_rejects_inverted_month_range() {
+
+        assertThrows(InvalidFilterException.class,
+                () -> monthlyTotalService.getMonthlyTotals(null, YearMonth.of(2024, 8), YearMonth.of(2024, 1), "EUR"));
+    }
+
+    private static Transaction transaction(Type type, String amount, String bookedAt) {
+        Account account = new Account("Wallet", BigDecimal.ZERO, "EUR");
+        return new Transaction(null, type, account, "Monthly", new BigDecimal(amount), "EUR", Instant.parse(bookedAt));
+    }
+}
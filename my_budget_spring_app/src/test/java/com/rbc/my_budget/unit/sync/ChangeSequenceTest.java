@@ -0,0 +1,117 @@
+package com.rbc.my_budget.unit.sync;
+
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.sync.ChangeSequence;
+import com.rbc.my_budget.sync.TombstoneRepository;
+import com.rbc.my_budget.transaction.TransactionRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class ChangeSequenceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    private ChangeSequence changeSequence;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(accountRepository.findMaxChangeSeq()).thenReturn(7L);
+        when(transactionRepository.findMaxChangeSeq()).thenReturn(12L);
+        when(tombstoneRepository.findMaxChangeSeq()).thenReturn(null);
+        changeSequence = new ChangeSequence(accountRepository, transactionRepository, tombstoneRepository);
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void test_sequence_continues_from_highest_stored_number() {
+
+        assertEquals(12, changeSequence.watermark());
+        assertEquals(13, changeSequence.next());
+        assertEquals(13, changeSequence.watermark());
+
+        verify(transactionRepository, times(1)).findMaxChangeSeq();
+    }
+
+    @Test
+    public void test_watermark_stays_below_open_transactions() {
+
+        TransactionSynchronizationManager.initSynchronization();
+        long first = changeSequence.next();
+        List<TransactionSynchronization> firstTransaction = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        long second = changeSequence.next();
+        List<TransactionSynchronization> secondTransaction = TransactionSynchronizationManager.getSynchronizations();
+
+        // The later change commits first; readers must not step past the earlier one yet.
+        secondTransaction.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(first - 1, changeSequence.watermark());
+
+        firstTransaction.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(second, changeSequence.watermark());
+    }
+
+    @Test
+    public void test_sequence_starts_at_one_on_empty_database() {
+
+        when(accountRepository.findMaxChangeSeq()).thenReturn(null);
+        when(transactionRepository.findMaxChangeSeq()).thenReturn(null);
+        ChangeSequence empty = new ChangeSequence(accountRepository, transactionRepository, tombstoneRepository);
+
+        assertEquals(0, empty.watermark());
+        assertEquals(1, empty.next());
+    }
+
+    @Test
+    public void test_concurrent_writers_get_distinct_numbers() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<Long> numbers = ConcurrentHashMap.newKeySet();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                futures.add(executor.submit(() -> {
+                    for (int n = 0; n < 1000; n++)
+                        numbers.add(changeSequence.next());
+                }));
+            for (Future<?> future : futures)
+                future.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(8000, numbers.size());
+        assertEquals(8012, changeSequence.watermark());
+    }
+}
@@ -0,0 +1,168 @@
+package com.rbc.my_budget.unit.transaction;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.exception.BatchTooLargeException;
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import com.rbc.my_budget.ledger.LedgerService;
+import com.rbc.my_budget.monthly.MonthlyTotalService;
+import com.rbc.my_budget.sync.ChangeSequence;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionBatchResult;
+import com.rbc.my_budget.transaction.TransactionBatchService;
+import com.rbc.my_budget.transaction.TransactionRepository;
+import com.rbc.my_budget.transaction.Type;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class TransactionBatchServiceTest {
+
+    @InjectMocks
+    private TransactionBatchService transactionBatchService;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private CurrencyService currencyService;
+    @Mock
+    private LedgerService ledgerService;
+    @Mock
+    private MonthlyTotalService monthlyTotalService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeSequence changeSequence;
+    @Mock
+    private Validator validator;
+
+    @Spy
+    private Clock clock = Clock.fixed(Instant.parse("2024-08-01T10:00:00Z"), ZoneOffset.UTC);
+
+    private final Account wallet = new Account("Wallet", new BigDecimal("100.00"), "EUR");
+    private final Account savings = new Account("Savings", new BigDecimal("500.00"), "USD");
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(accountRepository.findAllById(any())).thenReturn(List.of(wallet, savings));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_batch_applies_one_delta_per_account() {
+
+        when(currencyService.getExchangeRate("USD", "EUR", LocalDate.of(2024, 8, 1))).thenReturn(new BigDecimal("0.5"));
+
+        TransactionBatchResult result = transactionBatchService.createTransactions(List.of(
+                transaction("Wallet", Type.CREDIT, "10.00", "EUR"),
+                transaction("Wallet", Type.DEBIT, "4.00", "USD"),
+                transaction("Savings", Type.CREDIT, "20.00", "USD"),
+                transaction("Wallet", Type.CREDIT, "6.00", "USD")
+        ));
+
+        assertEquals(4, result.inserted());
+        assertTrue(result.errors().isEmpty());
+
+        ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).insertAll(inserted.capture());
+        assertEquals(4, inserted.getValue().size());
+
+        verify(accountRepository).addToBalance(eq("Wallet"), argThat(delta -> delta.compareTo(new BigDecimal("11.00")) == 0));
+        verify(accountRepository).addToBalance(eq("Savings"), argThat(delta -> delta.compareTo(new BigDecimal("20.00")) == 0));
+        verify(accountRepository, times(2)).addToBalance(any(), any());
+        verify(currencyService, times(1)).getExchangeRate(any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_batch_reports_failures_per_item() {
+
+        Transaction invalid = transaction("Wallet", Type.CREDIT, "-1", "EUR");
+        ConstraintViolation<Transaction> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("Amount must be positive.");
+        when(validator.validate(invalid)).thenReturn(Set.of(violation));
+
+        List<Transaction> batch = new ArrayList<>();
+        batch.add(transaction("Wallet", Type.CREDIT, "10.00", "EUR"));
+        batch.add(invalid);
+        batch.add(transaction("Missing", Type.CREDIT, "10.00", "EUR"));
+        batch.add(null);
+
+        TransactionBatchResult result = transactionBatchService.createTransactions(batch);
+
+        assertEquals(4, result.received());
+        assertEquals(1, result.inserted());
+        assertEquals(List.of(1, 2, 3), result.errors().stream().map(error -> error.index()).toList());
+        assertEquals(List.of("Amount must be positive."), result.errors().get(0).messages());
+        verify(accountRepository).addToBalance(eq("Wallet"), argThat(delta -> delta.compareTo(BigDecimal.TEN) == 0));
+    }
+
+    @Test
+    public void test_unavailable_rate_fails_only_the_items_that_need_it() {
+
+        when(currencyService.getExchangeRate("USD", "EUR", LocalDate.of(2024, 8, 1)))
+                .thenThrow(new ExchangeRateUnavailableException("USD"));
+
+        TransactionBatchResult result = transactionBatchService.createTransactions(List.of(
+                transaction("Wallet", Type.CREDIT, "10.00", "EUR"),
+                transaction("Wallet", Type.CREDIT, "4.00", "USD"),
+                transaction("Wallet", Type.CREDIT, "6.00", "USD")
+        ));
+
+        assertEquals(1, result.inserted());
+        assertEquals(List.of(1, 2), result.errors().stream().map(error -> error.index()).toList());
+        verify(accountRepository).addToBalance(eq("Wallet"), argThat(delta -> delta.compareTo(BigDecimal.TEN) == 0));
+        verify(currencyService, times(1)).getExchangeRate(any(), any(), any());
+    }
+
+    @Test
+    public void test_account_names_match_regardless_of_case() {
+
+        TransactionBatchResult result = transactionBatchService.createTransactions(List.of(
+                transaction("wallet", Type.CREDIT, "10.00", "EUR"),
+                transaction("WALLET", Type.CREDIT, "5.00", "EUR")
+        ));
+
+        assertTrue(result.errors().isEmpty());
+        verify(accountRepository).addToBalance(eq("Wallet"), argThat(delta -> delta.compareTo(new BigDecimal("15.00")) == 0));
+    }
+
+    @Test
+    public void test_batch_over_limit_is_rejected() {
+
+        List<Transaction> batch = Collections.nCopies(10_001, transaction("Wallet", Type.CREDIT, "1", "EUR"));
+
+        assertThrows(BatchTooLargeException.class, () -> transactionBatchService.createTransactions(batch));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private static Transaction transaction(String accountName, Type type, String amount, String currency) {
+        Account account = new Account();
+        account.setName(accountName);
+        return new Transaction(null, type, account, "Batch item", new BigDecimal(amount), currency, null);
+    }
+}
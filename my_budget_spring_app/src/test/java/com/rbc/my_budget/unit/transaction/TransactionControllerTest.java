@@ -1,18 +1,30 @@
 package com.rbc.my_budget.unit.transaction;
 
 import com.rbc.my_budget.account.Account;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbc.my_budget.currency.ExchangeRateCache;
+import com.rbc.my_budget.currency.ExchangeRateHistory;
+import com.rbc.my_budget.etag.ResourceVersions;
 import com.rbc.my_budget.exception.NotFoundException;
+import com.rbc.my_budget.idempotency.IdempotencyProperties;
+import com.rbc.my_budget.idempotency.IdempotencyStore;
 import com.rbc.my_budget.transaction.Transaction;
 import com.rbc.my_budget.transaction.TransactionController;
 import com.rbc.my_budget.transaction.TransactionService;
+import com.rbc.my_budget.transaction.TransactionView;
+import com.rbc.my_budget.transaction.Type;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -29,6 +41,14 @@ public class TransactionControllerTest {
     @Mock
     private TransactionService transactionService;
 
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(
+            new IdempotencyProperties(Duration.ofHours(24), 100, Duration.ofSeconds(5)),
+            new ObjectMapper().findAndRegisterModules(), Clock.systemUTC());
+
+    @Spy
+    private ResourceVersions resourceVersions = new ResourceVersions(mock(ExchangeRateHistory.class), mock(ExchangeRateCache.class), Clock.systemUTC());
+
     @Before
     public void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -37,10 +57,10 @@ public class TransactionControllerTest {
     @Test
     public void test_retrieve_all_transactions_successfully() {
 
-        List<Transaction> transactions = List.of(new Transaction(), new Transaction());
-        when(transactionService.getAllTransactions()).thenReturn(transactions);
+        List<TransactionView> transactions = List.of(view(1L), view(2L));
+        when(transactionService.getAllTransactions(null)).thenReturn(transactions);
 
-        ResponseEntity<List<Transaction>> response = transactionController.getAllTransactions();
+        ResponseEntity<List<TransactionView>> response = transactionController.getAllTransactions(null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(transactions, response.getBody());
@@ -50,20 +70,20 @@ public class TransactionControllerTest {
     public void test_retrieve_transactions_for_non_existent_account() {
 
         String nonExistentAccountName = "nonExistentAccount";
-        when(transactionService.getTransactionsForAccount(nonExistentAccountName))
+        when(transactionService.getTransactionsForAccount(nonExistentAccountName, null))
             .thenThrow(new NotFoundException(Account.class, nonExistentAccountName));
 
-        assertThrows(NotFoundException.class, () -> transactionController.getAllTransactionsForAccount(nonExistentAccountName));
+        assertThrows(NotFoundException.class, () -> transactionController.getAllTransactionsForAccount(nonExistentAccountName, null, null));
     }
 
     @Test
     public void test_retrieve_transactions_for_specific_account_successfully() {
 
-        List<Transaction> transactions = List.of(new Transaction(), new Transaction());
+        List<TransactionView> transactions = List.of(view(1L), view(2L));
         String accountName = "TestAccount";
-        when(transactionService.getTransactionsForAccount(accountName)).thenReturn(transactions);
+        when(transactionService.getTransactionsForAccount(accountName, null)).thenReturn(transactions);
 
-        ResponseEntity<List<Transaction>> response = transactionController.getAllTransactionsForAccount(accountName);
+        ResponseEntity<List<TransactionView>> response = transactionController.getAllTransactionsForAccount(accountName, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(transactions, response.getBody());
@@ -73,10 +93,10 @@ public class TransactionControllerTest {
     public void test_retrieve_specific_transaction_successfully() {
 
         Long transactionId = 1L;
-        Transaction expectedTransaction = new Transaction();
+        TransactionView expectedTransaction = view(transactionId);
         when(transactionService.getTransaction(transactionId)).thenReturn(expectedTransaction);
 
-        ResponseEntity<Transaction> response = transactionController.getTransaction(transactionId);
+        ResponseEntity<TransactionView> response = transactionController.getTransaction(transactionId, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedTransaction, response.getBody());
@@ -95,13 +115,28 @@ public class TransactionControllerTest {
     @Test
     public void test_create_new_transaction_successfully() {
 
-        Transaction newTransaction = new Transaction();
+        Transaction newTransaction = transaction(1L);
         when(transactionService.createTransaction(any(Transaction.class))).thenReturn(newTransaction);
 
-        ResponseEntity<?> response = transactionController.createTransaction(newTransaction);
+        ResponseEntity<TransactionView> response = transactionController.createTransaction(newTransaction, null);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
-        assertEquals(newTransaction, response.getBody());
+        assertEquals(TransactionView.of(newTransaction), response.getBody());
+    }
+
+    @Test
+    public void test_create_repeated_with_same_idempotency_key_returns_original_response() {
+
+        Transaction newTransaction = transaction(null);
+        when(transactionService.createTransaction(any(Transaction.class))).thenReturn(transaction(1L));
+
+        ResponseEntity<TransactionView> first = transactionController.createTransaction(newTransaction, "key-1");
+        ResponseEntity<TransactionView> retry = transactionController.createTransaction(newTransaction, "key-1");
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        verify(transactionService, times(1)).createTransaction(any(Transaction.class));
     }
 
     @Test
@@ -109,13 +144,13 @@ public class TransactionControllerTest {
 
         Long id = 1L;
         Transaction updatedTransaction = new Transaction();
-        Transaction existingTransaction = new Transaction();
+        Transaction existingTransaction = transaction(id);
         when(transactionService.editTransaction(eq(id), any(Transaction.class))).thenReturn(existingTransaction);
 
-        ResponseEntity<?> response = transactionController.updateTransaction(id, updatedTransaction);
+        ResponseEntity<TransactionView> response = transactionController.updateTransaction(id, updatedTransaction, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(existingTransaction, response.getBody());
+        assertEquals("TestAccount", response.getBody().accountName());
     }
 
     @Test
@@ -126,7 +161,7 @@ public class TransactionControllerTest {
         when(transactionService.editTransaction(eq(nonExistentId), any(Transaction.class)))
                 .thenThrow(new NotFoundException(Transaction.class, nonExistentId));
 
-        assertThrows(NotFoundException.class, () -> transactionController.updateTransaction(nonExistentId, updatedTransaction));
+        assertThrows(NotFoundException.class, () -> transactionController.updateTransaction(nonExistentId, updatedTransaction, null));
         verify(transactionService, times(1)).editTransaction(nonExistentId, updatedTransaction);
     }
 
@@ -135,9 +170,6 @@ public class TransactionControllerTest {
     public void test_delete_transaction_by_id_successfully() {
 
         Long transactionId = 1L;
-        Transaction transaction = new Transaction();
-        when(transactionService.getTransaction(transactionId)).thenReturn(transaction);
-
         ResponseEntity<?> response = transactionController.deleteTransaction(transactionId);
 
         verify(transactionService, times(1)).deleteTransaction(transactionId);
@@ -157,13 +189,26 @@ public class TransactionControllerTest {
     @Test
     public void delete_all_transactions_successfully() {
 
-        List<Transaction> transactions = List.of(new Transaction(), new Transaction());
-        when(transactionService.getAllTransactions()).thenReturn(transactions);
+        ResponseEntity<Void> response = transactionController.deleteTransactions(null, null);
 
-        ResponseEntity<Void> response = transactionController.deleteAllTransactions();
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(transactionService, times(1)).deleteTransactions(null, null);
+    }
+
+    @Test
+    public void delete_transactions_by_account_and_type_successfully() {
+
+        ResponseEntity<Void> response = transactionController.deleteTransactions("TestAccount", Type.DEBIT);
 
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
-        verify(transactionService, times(1)).deleteAllTransactions();
+        verify(transactionService, times(1)).deleteTransactions("TestAccount", Type.DEBIT);
+    }
+
+    private static TransactionView view(Long id) {
+        return new TransactionView(id, Type.CREDIT, "TestAccount", "Test", BigDecimal.ONE, "EUR", null);
     }
 
-}
\ No newline at end of file
+    private static Transaction transaction(Long id) {
+        return new Transaction(id, Type.CREDIT, new Account("TestAccount", BigDecimal.TEN, "EUR"), "Test", BigDecimal.ONE, "EUR", null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.rbc.my_budget.unit.transaction;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionExportService;
+import com.rbc.my_budget.transaction.TransactionRepository;
+import com.rbc.my_budget.transaction.Type;
+import jakarta.persistence.EntityManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TransactionExportService exportService;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        exportService = new TransactionExportService(transactionRepository, entityManager, objectMapper);
+    }
+
+    @Test
+    public void test_export_writes_json_array_and_detaches_each_row() throws Exception {
+
+        Account account = new Account("Wallet", new BigDecimal("100.00"), "EUR");
+        Transaction first = new Transaction(1L, Type.CREDIT, account, "Salary", new BigDecimal("50.00"), "EUR", null);
+        Transaction second = new Transaction(2L, Type.DEBIT, account, "Coffee", new BigDecimal("3.50"), "USD", null);
+        when(transactionRepository.streamAllWithAccount()).thenReturn(Stream.of(first, second));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.exportTransactions(out);
+
+        JsonNode json = objectMapper.readTree(out.toByteArray());
+        assertEquals(2, written);
+        assertEquals(2, json.size());
+        assertEquals("Coffee", json.get(1).get("description").asText());
+        assertEquals("Wallet", json.get(1).get("account").get("name").asText());
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    public void test_export_of_empty_table_is_empty_array() throws Exception {
+
+        when(transactionRepository.streamAllWithAccount()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTransactions(out);
+
+        assertEquals("[]", out.toString());
+    }
+}
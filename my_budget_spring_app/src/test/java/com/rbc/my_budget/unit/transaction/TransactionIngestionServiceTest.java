@@ -0,0 +1,171 @@
+package com.rbc.my_budget.unit.transaction;
+
+import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.exception.ExceptionHandlerAdvice;
+import com.rbc.my_budget.exception.IngestionQueueFullException;
+import com.rbc.my_budget.exception.NotFoundException;
+import com.rbc.my_budget.transaction.IngestionStatus;
+import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionBatchError;
+import com.rbc.my_budget.transaction.TransactionBatchResult;
+import com.rbc.my_budget.transaction.TransactionBatchService;
+import com.rbc.my_budget.transaction.TransactionIngestionProperties;
+import com.rbc.my_budget.transaction.TransactionIngestionService;
+import com.rbc.my_budget.transaction.Type;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class TransactionIngestionServiceTest {
+
+    @Mock
+    private TransactionBatchService transactionBatchService;
+
+    private TransactionIngestionService ingestionService;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (ingestionService != null)
+            ingestionService.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_queued_transactions_are_committed_in_one_group() throws Exception {
+
+        when(transactionBatchService.createTransactions(any())).thenAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            return new TransactionBatchResult(batch.size(), batch.size() - 1, List.of(new TransactionBatchError(1, List.of("Amount must be positive."))));
+        });
+        ingestionService = start(1, 100, 3, Duration.ofSeconds(5));
+
+        IngestionStatus first = ingestionService.submit(transaction("Wallet"));
+        IngestionStatus second = ingestionService.submit(transaction("Wallet"));
+        IngestionStatus third = ingestionService.submit(transaction("Wallet"));
+
+        assertEquals(IngestionStatus.State.QUEUED, first.state());
+        awaitFinished(first.id(), second.id(), third.id());
+
+        ArgumentCaptor<List<Transaction>> batch = ArgumentCaptor.forClass(List.class);
+        verify(transactionBatchService, times(1)).createTransactions(batch.capture());
+        assertEquals(3, batch.getValue().size());
+
+        assertEquals(IngestionStatus.State.COMMITTED, ingestionService.getStatus(first.id()).state());
+        assertEquals(IngestionStatus.State.FAILED, ingestionService.getStatus(second.id()).state());
+        assertEquals(List.of("Amount must be positive."), ingestionService.getStatus(second.id()).errors());
+        assertEquals(IngestionStatus.State.COMMITTED, ingestionService.getStatus(third.id()).state());
+    }
+
+    @Test
+    public void test_full_partition_refuses_new_writes() throws Exception {
+
+        CountDownLatch commitStarted = new CountDownLatch(1);
+        CountDownLatch releaseCommit = new CountDownLatch(1);
+        when(transactionBatchService.createTransactions(any())).thenAnswer(invocation -> {
+            commitStarted.countDown();
+            releaseCommit.await(5, TimeUnit.SECONDS);
+            return new TransactionBatchResult(1, 1, List.of());
+        });
+        ingestionService = start(1, 2, 1, Duration.ZERO);
+
+        ingestionService.submit(transaction("Wallet"));
+        assertTrue(commitStarted.await(5, TimeUnit.SECONDS));
+
+        ingestionService.submit(transaction("Wallet"));
+        ingestionService.submit(transaction("Wallet"));
+        assertThrows(IngestionQueueFullException.class, () -> ingestionService.submit(transaction("Wallet")));
+
+        releaseCommit.countDown();
+    }
+
+    @Test
+    public void test_full_partition_is_reported_as_too_many_requests() {
+
+        ResponseEntity<String> response = new ExceptionHandlerAdvice().handleIngestionQueueFullException(new IngestionQueueFullException());
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void test_stop_commits_queued_transactions_first() throws Exception {
+
+        when(transactionBatchService.createTransactions(any())).thenAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            return new TransactionBatchResult(batch.size(), batch.size(), List.of());
+        });
+        ingestionService = start(1, 100, 100, Duration.ofSeconds(1));
+
+        IngestionStatus status = ingestionService.submit(transaction("Wallet"));
+        ingestionService.stop();
+
+        assertEquals(IngestionStatus.State.COMMITTED, ingestionService.getStatus(status.id()).state());
+        assertThrows(IngestionQueueFullException.class, () -> ingestionService.submit(transaction("Wallet")));
+    }
+
+    @Test
+    public void test_failed_commit_marks_whole_group_failed() throws Exception {
+
+        when(transactionBatchService.createTransactions(any())).thenThrow(new IllegalStateException("database down"));
+        ingestionService = start(1, 10, 10, Duration.ZERO);
+
+        IngestionStatus status = ingestionService.submit(transaction("Wallet"));
+        awaitFinished(status.id());
+
+        assertEquals(IngestionStatus.State.FAILED, ingestionService.getStatus(status.id()).state());
+    }
+
+    @Test
+    public void test_unknown_tracking_id_is_not_found() {
+
+        ingestionService = start(1, 10, 10, Duration.ZERO);
+
+        assertThrows(NotFoundException.class, () -> ingestionService.getStatus("missing"));
+    }
+
+    private TransactionIngestionService start(int partitions, int capacity, int batchSize, Duration linger) {
+        TransactionIngestionService service = new TransactionIngestionService(transactionBatchService,
+                new TransactionIngestionProperties(true, partitions, capacity, batchSize, linger, Duration.ofHours(1)),
+                Clock.systemUTC(), new MockEnvironment());
+        service.start();
+        return service;
+    }
+
+    private void awaitFinished(String... ids) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        for (String id : ids) {
+            while (ingestionService.getStatus(id).state() == IngestionStatus.State.QUEUED) {
+                assertTrue("Timed out waiting for " + id, System.nanoTime() < deadline);
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static Transaction transaction(String accountName) {
+        Account account = new Account();
+        account.setName(accountName);
+        return new Transaction(null, Type.CREDIT, account, "Ingested", BigDecimal.ONE, "EUR", null);
+    }
+}
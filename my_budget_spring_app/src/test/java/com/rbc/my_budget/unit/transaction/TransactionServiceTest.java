@@ -1,22 +1,44 @@
 package com.rbc.my_budget.unit.transaction;
 
 import com.rbc.my_budget.account.Account;
+import com.rbc.my_budget.account.AccountCache;
 import com.rbc.my_budget.account.AccountRepository;
+import com.rbc.my_budget.account.AccountView;
 import com.rbc.my_budget.currency.CurrencyService;
+import com.rbc.my_budget.exception.ExchangeRateUnavailableException;
+import com.rbc.my_budget.exception.InvalidCursorException;
+import com.rbc.my_budget.exception.InvalidFilterException;
 import com.rbc.my_budget.exception.NotFoundException;
+import com.rbc.my_budget.ledger.LedgerEventType;
+import com.rbc.my_budget.ledger.LedgerService;
+import com.rbc.my_budget.monthly.MonthlyTotalService;
+import com.rbc.my_budget.sync.ChangeTracker;
 import com.rbc.my_budget.transaction.Transaction;
+import com.rbc.my_budget.transaction.TransactionFilter;
+import com.rbc.my_budget.transaction.TransactionPage;
 import com.rbc.my_budget.transaction.TransactionRepository;
 import com.rbc.my_budget.transaction.TransactionService;
+import com.rbc.my_budget.transaction.TransactionTotal;
+import com.rbc.my_budget.transaction.TransactionView;
 import com.rbc.my_budget.transaction.Type;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -32,6 +54,20 @@ public class TransactionServiceTest {
 
     @Mock
     private CurrencyService currencyService;
+    @Mock
+    private LedgerService ledgerService;
+    @Mock
+    private MonthlyTotalService monthlyTotalService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeTracker changeTracker;
+    @Mock
+    private AccountCache accountCache;
+
+    @Spy
+    private Clock clock = Clock.fixed(Instant.parse("2024-08-01T10:00:00Z"), ZoneOffset.UTC);
 
     @Before
     public void setUp() {
@@ -41,61 +77,118 @@ public class TransactionServiceTest {
     @Test
     public void test_get_all_transactions_success() {
 
-        List<Transaction> transactions = List.of(new Transaction(), new Transaction());
-        when(transactionRepository.findAll()).thenReturn(transactions);
+        when(transactionRepository.findAllViews()).thenReturn(transactionsWithIds(1, 2));
 
-        List<Transaction> result = transactionService.getAllTransactions();
+        List<TransactionView> result = transactionService.getAllTransactions();
 
         assertEquals(2, result.size());
-        verify(transactionRepository, times(1)).findAll();
+        verify(transactionRepository, times(1)).findAllViews();
     }
 
     @Test
     public void test_retrieve_transaction_by_id_successfully() {
 
         Long transactionId = 1L;
-        Transaction transaction = new Transaction();
-        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
+        TransactionView transaction = new TransactionView(transactionId, Type.DEBIT, "TestAccount", "Groceries",
+                new BigDecimal("10.00"), "EUR", Instant.parse("2024-08-01T10:00:00Z"));
+        when(transactionRepository.findViewById(transactionId)).thenReturn(Optional.of(transaction));
 
-        Transaction result = transactionService.getTransaction(transactionId);
+        TransactionView result = transactionService.getTransaction(transactionId);
 
         assertEquals(transaction, result);
-        verify(transactionRepository, times(1)).findById(transactionId);
+        verify(transactionRepository, never()).findById(transactionId);
     }
 
     @Test
     public void test_get_transaction_not_found() {
 
         Long nonExistentId = 999L;
-        when(transactionRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(transactionRepository.findViewById(nonExistentId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> transactionService.getTransaction(nonExistentId));
-        verify(transactionRepository, times(1)).findById(nonExistentId);
+        verify(transactionRepository, times(1)).findViewById(nonExistentId);
     }
 
     @Test
     public void test_get_transactions_for_account_success() {
 
         String accountName = "TestAccount";
-        List<Transaction> transactions = List.of(new Transaction(), new Transaction());
-        when(transactionRepository.findByAccountName(accountName)).thenReturn(transactions);
+        when(transactionRepository.findViewsByAccountName(accountName)).thenReturn(transactionsWithIds(1, 2));
 
-        List<Transaction> result = transactionService.getTransactionsForAccount(accountName);
+        List<TransactionView> result = transactionService.getTransactionsForAccount(accountName);
 
         assertEquals(2, result.size());
-        verify(transactionRepository, times(1)).findByAccountName(accountName);
+        verify(transactionRepository, times(1)).findViewsByAccountName(accountName);
+    }
+
+    @Test
+    public void test_first_transaction_page_returns_next_cursor() {
+
+        when(transactionRepository.findViewsBefore(Long.MAX_VALUE, Limit.of(3)))
+                .thenReturn(transactionsWithIds(10, 9, 8));
+
+        TransactionPage page = transactionService.getTransactionPage(null, 2, null);
+
+        assertEquals(2, page.items().size());
+        assertEquals(Long.valueOf(9), page.items().get(1).id());
+        assertNotNull(page.nextCursor());
+
+        when(transactionRepository.findViewsBefore(9L, Limit.of(3)))
+                .thenReturn(transactionsWithIds(8));
+
+        TransactionPage lastPage = transactionService.getTransactionPage(page.nextCursor(), 2, null);
+
+        assertEquals(1, lastPage.items().size());
+        assertNull(lastPage.nextCursor());
+    }
+
+    @Test
+    public void test_transaction_page_size_is_capped() {
+
+        when(transactionRepository.findViewsByAccountNameBefore(eq("TestAccount"), eq(Long.MAX_VALUE), any()))
+                .thenReturn(List.of());
+
+        transactionService.getTransactionPageForAccount("TestAccount", null, 10_000, null);
+
+        verify(transactionRepository).findViewsByAccountNameBefore("TestAccount", Long.MAX_VALUE, Limit.of(201));
+    }
+
+    @Test
+    public void test_transaction_page_rejects_malformed_cursor() {
+
+        assertThrows(InvalidCursorException.class, () -> transactionService.getTransactionPage("not a cursor", 10, null));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    public void test_search_rejects_inverted_date_range() {
+
+        Instant from = Instant.parse("2024-08-01T00:00:00Z");
+        TransactionFilter filter = new TransactionFilter(null, null, from, from.minusSeconds(1), null, null);
+
+        assertThrows(InvalidFilterException.class, () -> transactionService.searchTransactions(filter, null, 10, null));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    public void test_search_rejects_inverted_amount_range() {
+
+        TransactionFilter filter = new TransactionFilter(null, null, null, null, BigDecimal.TEN, BigDecimal.ONE);
+
+        assertThrows(InvalidFilterException.class, () -> transactionService.searchTransactions(filter, null, 10, null));
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
     public void test_get_transactions_for_non_existing_account_success() {
 
         String accountName = "noneExistingAccount";
-        when(transactionRepository.findByAccountName(accountName)).thenReturn(List.of());
+        when(transactionRepository.findViewsByAccountName(accountName)).thenReturn(List.of());
 
-        List<Transaction> transactions = transactionService.getTransactionsForAccount(accountName);
+        List<TransactionView> transactions = transactionService.getTransactionsForAccount(accountName);
         assertTrue(transactions.isEmpty());
 
-        verify(transactionRepository, times(1)).findByAccountName(accountName);
+        verify(transactionRepository, times(1)).findViewsByAccountName(accountName);
     }
 
 
@@ -114,7 +207,8 @@ public class TransactionServiceTest {
         transaction.setAmount(BigDecimal.valueOf(100));
         transaction.setCurrency("USD");
 
-        when(accountRepository.findById(anyString())).thenReturn(Optional.of(account));
+        stubAccount(account);
+        applyDeltasTo(account);
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
             Transaction savedTransaction = invocation.getArgument(0);
             savedTransaction.setAccount(account);
@@ -126,6 +220,8 @@ public class TransactionServiceTest {
         assertEquals(BigDecimal.valueOf(200), createdTransaction.getAccount().getBalance());
 
         verify(transactionRepository, times(1)).save(transaction);
+        verify(ledgerService).record("TestAccount", LedgerEventType.CREATE, null, BigDecimal.valueOf(100));
+        assertEquals(Instant.parse("2024-08-01T10:00:00Z"), createdTransaction.getBookedAt());
     }
 
     @Test
@@ -143,7 +239,8 @@ public class TransactionServiceTest {
         transaction.setAmount(BigDecimal.valueOf(100));
         transaction.setCurrency("USD");
 
-        when(accountRepository.findById(anyString())).thenReturn(Optional.of(account));
+        stubAccount(account);
+        applyDeltasTo(account);
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
             Transaction savedTransaction = invocation.getArgument(0);
             savedTransaction.setAccount(account);
@@ -163,11 +260,11 @@ public class TransactionServiceTest {
         Transaction transaction = new Transaction();
         transaction.setAccount(new Account("non_existent_account", BigDecimal.TEN, "USD"));
     
-        when(accountRepository.findById(anyString())).thenThrow(new NotFoundException(Account.class, "non_existent_account"));
+        when(accountCache.get("non_existent_account")).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> transactionService.createTransaction(transaction));
 
-        verify(accountRepository, times(1)).findById("non_existent_account");
+        verify(accountCache, times(1)).get("non_existent_account");
         verifyNoMoreInteractions(transactionRepository, accountRepository);
     }
 
@@ -185,14 +282,34 @@ public class TransactionServiceTest {
         transaction.setCurrency("EUR");
         transaction.setType(Type.CREDIT);
 
-        when(accountRepository.findById("account")).thenReturn(Optional.of(account));
-        when(currencyService.getExchangeRate("EUR", "USD")).thenReturn(BigDecimal.valueOf(1.2));
+        stubAccount(account);
+        when(currencyService.getExchangeRate("EUR", "USD", LocalDate.of(2024, 8, 1))).thenReturn(BigDecimal.valueOf(1.2));
 
         transactionService.createTransaction(transaction);
 
-        verify(accountRepository).save(argThat(acc ->
-                acc.getBalance().equals(BigDecimal.valueOf(1000).add(BigDecimal.valueOf(100).multiply(BigDecimal.valueOf(1.2)))) &&
-                        acc.getCurrency().equals("USD")));
+        verify(accountRepository).addToBalance("account", BigDecimal.valueOf(100).multiply(BigDecimal.valueOf(1.2)));
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    public void test_create_transaction_without_rate_is_refused() {
+
+        Account account = new Account();
+        account.setName("account");
+        account.setCurrency("USD");
+        account.setBalance(BigDecimal.valueOf(1000));
+
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setAmount(BigDecimal.valueOf(100));
+        transaction.setCurrency("EUR");
+        transaction.setType(Type.CREDIT);
+
+        stubAccount(account);
+        when(currencyService.getExchangeRate("EUR", "USD", LocalDate.of(2024, 8, 1))).thenReturn(null);
+
+        assertThrows(ExchangeRateUnavailableException.class, () -> transactionService.createTransaction(transaction));
+        verify(accountRepository, never()).addToBalance(any(), any());
     }
 
     @Test
@@ -220,7 +337,7 @@ public class TransactionServiceTest {
         updatedTransaction.setCurrency("USD");
 
         when(transactionRepository.findById(1L)).thenReturn(Optional.of(initialTransaction));
-        when(accountRepository.findById("TestAccount")).thenReturn(Optional.of(account));
+        applyDeltasTo(account);
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Transaction resultTransaction = transactionService.editTransaction(1L, updatedTransaction);
@@ -269,7 +386,7 @@ public class TransactionServiceTest {
         transaction.setCurrency("USD");
 
         when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
-        when(accountRepository.findById("TestAccount")).thenReturn(Optional.of(account));
+        applyDeltasTo(account);
 
         transactionService.deleteTransaction(1L);
 
@@ -277,6 +394,91 @@ public class TransactionServiceTest {
         verify(transactionRepository).delete(transaction);
     }
 
+    @Test
+    public void test_edit_description_only_leaves_balance_alone() {
+
+        Account account = new Account("TestAccount", BigDecimal.valueOf(200), "USD");
+        Transaction existing = new Transaction(1L, Type.DEBIT, account, "Old", BigDecimal.valueOf(50), "EUR",
+                Instant.parse("2024-07-01T10:00:00Z"));
+        Transaction updated = new Transaction(null, Type.DEBIT, account, "New", new BigDecimal("50.00"), "EUR", null);
+
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Transaction result = transactionService.editTransaction(1L, updated);
+
+        assertEquals("New", result.getDescription());
+        verify(accountRepository, never()).findById(anyString());
+        verify(accountRepository, never()).addToBalance(anyString(), any());
+        verifyNoInteractions(currencyService, ledgerService, monthlyTotalService, accountCache);
+    }
+
+    @Test
+    public void test_edit_of_booking_time_only_locks_account_before_moving_monthly_totals() {
+
+        Account account = new Account("TestAccount", BigDecimal.valueOf(200), "EUR");
+        Transaction existing = new Transaction(1L, Type.DEBIT, account, "Rent", BigDecimal.valueOf(50), "EUR",
+                Instant.parse("2024-07-01T10:00:00Z"));
+        Transaction updated = new Transaction(null, Type.DEBIT, account, "Rent", BigDecimal.valueOf(50), "EUR",
+                Instant.parse("2024-06-30T10:00:00Z"));
+
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        transactionService.editTransaction(1L, updated);
+
+        InOrder order = inOrder(accountRepository, monthlyTotalService);
+        order.verify(accountRepository).lockByName("TestAccount");
+        order.verify(monthlyTotalService).remove(existing);
+        order.verify(monthlyTotalService).add(existing);
+        verify(accountRepository, never()).addToBalance(anyString(), any());
+        verifyNoInteractions(ledgerService);
+    }
+
+    @Test
+    public void test_edit_applies_one_net_delta_and_fetches_rate_once() {
+
+        Account account = new Account("TestAccount", BigDecimal.valueOf(200), "USD");
+        Transaction existing = new Transaction(1L, Type.DEBIT, account, "Dinner", BigDecimal.valueOf(50), "EUR",
+                Instant.parse("2024-07-01T10:00:00Z"));
+        Transaction updated = new Transaction(null, Type.DEBIT, account, "Dinner", BigDecimal.valueOf(60), "EUR", null);
+
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(currencyService.getExchangeRate("EUR", "USD", LocalDate.of(2024, 8, 1))).thenReturn(new BigDecimal("2"));
+        applyDeltasTo(account);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        transactionService.editTransaction(1L, updated);
+
+        verify(currencyService, times(1)).getExchangeRate("EUR", "USD", LocalDate.of(2024, 8, 1));
+        verify(accountRepository, times(1)).addToBalance(eq("TestAccount"), any());
+        verify(ledgerService).record("TestAccount", LedgerEventType.EDIT, 1L, new BigDecimal("-20"));
+        assertEquals(0, new BigDecimal("180").compareTo(account.getBalance()));
+    }
+
+    @Test
+    public void test_edit_moving_between_accounts_touches_both() {
+
+        Account from = new Account("From", BigDecimal.valueOf(100), "EUR");
+        Account to = new Account("To", BigDecimal.valueOf(100), "EUR");
+        Transaction existing = new Transaction(1L, Type.CREDIT, from, "Gift", BigDecimal.valueOf(30), "EUR",
+                Instant.parse("2024-07-01T10:00:00Z"));
+        Transaction updated = new Transaction(null, Type.CREDIT, new Account("To", null, null), "Gift", BigDecimal.valueOf(30), "EUR", null);
+
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(existing));
+        stubAccount(to);
+        applyDeltasTo(from);
+        applyDeltasTo(to);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Transaction result = transactionService.editTransaction(1L, updated);
+
+        assertSame(to, result.getAccount());
+        assertEquals(BigDecimal.valueOf(70), from.getBalance());
+        assertEquals(BigDecimal.valueOf(130), to.getBalance());
+        verifyNoInteractions(currencyService);
+    }
+
     @Test
     public void delete_transaction_non_existent_id() {
 
@@ -291,53 +493,80 @@ public class TransactionServiceTest {
     @Test
     public void test_delete_all_transactions() {
 
-        Account account1 = new Account();
-        account1.setName("TestAccount1");
-        account1.setBalance(BigDecimal.valueOf(200));
-        account1.setCurrency("USD");
-
-        Account account2 = new Account();
-        account2.setName("TestAccount2");
-        account2.setBalance(BigDecimal.valueOf(300));
-        account2.setCurrency("USD");
-
-        Transaction transaction1 = new Transaction();
-        transaction1.setId(1L);
-        transaction1.setType(Type.DEBIT);
-        transaction1.setAccount(account1);
-        transaction1.setDescription("Test Transaction 1");
-        transaction1.setAmount(BigDecimal.valueOf(50));
-        transaction1.setCurrency("USD");
-
-        Transaction transaction2 = new Transaction();
-        transaction2.setId(2L);
-        transaction2.setType(Type.CREDIT);
-        transaction2.setAccount(account2);
-        transaction2.setDescription("Test Transaction 2");
-        transaction2.setAmount(BigDecimal.valueOf(100));
-        transaction2.setCurrency("USD");
-
-        Transaction transaction3 = new Transaction();
-        transaction3.setId(3L);
-        transaction3.setType(Type.DEBIT);
-        transaction3.setAccount(account2);
-        transaction3.setDescription("Test Transaction 2");
-        transaction3.setAmount(BigDecimal.valueOf(100));
-        transaction3.setCurrency("USD");
-
-        List<Transaction> transactions = List.of(transaction1, transaction2, transaction3);
-
-        when(transactionRepository.findAll()).thenReturn(transactions);
-        when(accountRepository.findById(account1.getName())).thenReturn(Optional.of(account1));
-        when(accountRepository.findById(account2.getName())).thenReturn(Optional.of(account2));
+        List<String> names = List.of("TestAccount1", "TestAccount2");
+        when(accountRepository.lockAll()).thenReturn(List.of(
+                new Account("TestAccount1", BigDecimal.ZERO, "USD"), new Account("TestAccount2", BigDecimal.ZERO, "USD")));
+        when(transactionRepository.sumAmounts(names, null)).thenReturn(List.of(
+                new TransactionTotal("TestAccount1", "USD", "USD", Type.DEBIT, BigDecimal.valueOf(50)),
+                new TransactionTotal("TestAccount2", "USD", "USD", Type.CREDIT, BigDecimal.valueOf(100)),
+                new TransactionTotal("TestAccount2", "USD", "USD", Type.DEBIT, BigDecimal.valueOf(100))
+        ));
+        when(transactionRepository.deleteMatching(names, null)).thenReturn(3);
 
         transactionService.deleteAllTransactions();
 
-        verify(transactionRepository).deleteAll();
+        verify(transactionRepository).deleteMatching(names, null);
+        verify(transactionRepository, never()).findAll();
+        verify(accountRepository).addToBalance("TestAccount1", BigDecimal.valueOf(50));
+        verify(accountRepository).addToBalance("TestAccount2", BigDecimal.valueOf(0));
+    }
+
+    @Test
+    public void test_delete_transactions_for_account_converts_foreign_totals_once() {
+
+        when(accountRepository.lockByName("TestAccount")).thenReturn(Optional.of(new Account("TestAccount", BigDecimal.ZERO, "USD")));
+        when(transactionRepository.sumAmounts(List.of("TestAccount"), Type.CREDIT)).thenReturn(List.of(
+                new TransactionTotal("TestAccount", "USD", "USD", Type.CREDIT, new BigDecimal("10.00")),
+                new TransactionTotal("TestAccount", "USD", "EUR", Type.CREDIT, new BigDecimal("20.00"))
+        ));
+        when(currencyService.getExchangeRate("EUR", "USD", LocalDate.of(2024, 8, 1))).thenReturn(new BigDecimal("1.5"));
+        when(transactionRepository.deleteMatching(List.of("TestAccount"), Type.CREDIT)).thenReturn(7);
+
+        assertEquals(7, transactionService.deleteTransactions("TestAccount", Type.CREDIT));
+
+        verify(accountRepository).addToBalance(eq("TestAccount"), argThat(delta -> delta.compareTo(new BigDecimal("-40.00")) == 0));
+        verify(currencyService, times(1)).getExchangeRate(any(), any(), any());
+    }
+
+    @Test
+    public void test_delete_transactions_locks_account_before_summing() {
+
+        when(accountRepository.lockByName("TestAccount")).thenReturn(Optional.of(new Account("TestAccount", BigDecimal.ZERO, "USD")));
+
+        transactionService.deleteTransactions("TestAccount", null);
 
-        assertEquals(BigDecimal.valueOf(250), account1.getBalance());
-        assertEquals(BigDecimal.valueOf(300), account2.getBalance());
+        InOrder order = inOrder(accountRepository, transactionRepository);
+        order.verify(accountRepository).lockByName("TestAccount");
+        order.verify(transactionRepository).sumAmounts(List.of("TestAccount"), null);
+        order.verify(transactionRepository).deleteMatching(List.of("TestAccount"), null);
     }
 
+    @Test
+    public void test_delete_transactions_for_unknown_account_touches_nothing() {
+
+        when(accountRepository.lockByName("Missing")).thenReturn(Optional.empty());
+
+        assertEquals(0, transactionService.deleteTransactions("Missing", null));
+
+        verify(transactionRepository, never()).deleteMatching(any(), any());
+    }
 
-}
\ No newline at end of file
+    private static List<TransactionView> transactionsWithIds(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> new TransactionView(id, Type.CREDIT, "TestAccount", "Test", BigDecimal.ONE, "EUR", null))
+                .toList();
+    }
+
+    private void stubAccount(Account account) {
+        when(accountCache.get(account.getName())).thenReturn(Optional.of(AccountView.of(account)));
+        when(accountRepository.getReferenceById(account.getName())).thenReturn(account);
+    }
+
+    private void applyDeltasTo(Account account) {
+        // Stands in for the database: the delta update lands on the account the test holds.
+        when(accountRepository.addToBalance(eq(account.getName()), any())).thenAnswer(invocation -> {
+            account.setBalance(account.getBalance().add(invocation.getArgument(1)));
+            return 1;
+        });
+    }
+}